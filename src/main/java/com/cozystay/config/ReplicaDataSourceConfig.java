@@ -0,0 +1,87 @@
+package com.cozystay.config;
+
+import com.cozystay.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Only active when replicas are configured; otherwise Boot's single DataSource is used unchanged
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replicas", name = "urls")
+public class ReplicaDataSourceConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+    private static final String REPLICA_HIKARI_PREFIX = "datasource.replicas.hikari";
+
+    /**
+     * Every pool gets the spring.datasource.hikari.* settings Boot would have applied to its own
+     * pool (reWriteBatchedInserts among them). Replicas can override them under
+     * datasource.replicas.hikari.*. Each pool reports the hikaricp.* meters under its own name.
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.replicas.urls}") List<String> replicaUrls,
+            @Value("${datasource.replicas.pool-size:10}") int replicaPoolSize,
+            @Value("${datasource.replicas.max-lag-ms:2000}") long maxLagMs) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(HIKARI_PREFIX, Bindable.ofInstance(primary));
+        register(primary, "primary", meterRegistry);
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrls.get(i).trim())
+                    .build();
+            binder.bind(HIKARI_PREFIX, Bindable.ofInstance(replica));
+            replica.setMaximumPoolSize(replicaPoolSize);
+            binder.bind(REPLICA_HIKARI_PREFIX, Bindable.ofInstance(replica));
+            replica.setReadOnly(true);
+            register(replica, "replica-" + i, meterRegistry);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, maxLagMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    // Set after binding, so a shared pool-name setting can't give two pools the same meter tags
+    private void register(HikariDataSource pool, String poolName, MeterRegistry meterRegistry) {
+        pool.setPoolName(poolName);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    }
+
+    // Hold a connection per transaction, not per request: with open-in-view a session would otherwise
+    // keep whichever node it touched first, and a later write could land on a replica connection
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandling() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
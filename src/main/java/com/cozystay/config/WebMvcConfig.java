@@ -0,0 +1,24 @@
+package com.cozystay.config;
+
+import com.cozystay.datasource.ReadYourWritesInterceptor;
+import com.cozystay.metrics.RequestStatisticsInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private RequestStatisticsInterceptor requestStatisticsInterceptor;
+
+    @Autowired
+    private ReadYourWritesInterceptor readYourWritesInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestStatisticsInterceptor);
+        registry.addInterceptor(readYourWritesInterceptor);
+    }
+}
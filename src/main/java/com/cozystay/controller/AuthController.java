@@ -1,7 +1,9 @@
 package com.cozystay.controller;
 
+import com.cozystay.dto.auth.AccountAvailabilityResponse;
 import com.cozystay.dto.auth.JwtAuthenticationResponse;
 import com.cozystay.dto.auth.LoginRequest;
+import com.cozystay.dto.auth.RefreshTokenRequest;
 import com.cozystay.dto.auth.RegisterRequest;
 import com.cozystay.model.User;
 import com.cozystay.service.AuthService;
@@ -24,6 +26,25 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtAuthenticationResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        JwtAuthenticationResponse response = authService.refreshToken(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        authService.logout(request);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<AccountAvailabilityResponse> checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        return ResponseEntity.ok(authService.checkAvailability(username, email));
+    }
+
     @PostMapping("/register")
     public ResponseEntity<User> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
         User user = authService.registerUser(registerRequest);
@@ -0,0 +1,68 @@
+package com.cozystay.controller;
+
+import com.cozystay.dto.availability.AvailabilityOverrideRequest;
+import com.cozystay.dto.availability.AvailabilityOverrideResponse;
+import com.cozystay.dto.availability.AvailabilityResponse;
+import com.cozystay.dto.availability.AvailabilityRuleRequest;
+import com.cozystay.dto.availability.AvailabilityRuleResponse;
+import com.cozystay.service.AvailabilityRuleService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/availability-rules")
+public class AvailabilityRuleController {
+
+    @Autowired
+    private AvailabilityRuleService availabilityRuleService;
+
+    @GetMapping("/service/{serviceId}")
+    public ResponseEntity<List<AvailabilityRuleResponse>> getRulesByServiceId(@PathVariable Long serviceId) {
+        List<AvailabilityRuleResponse> rules = availabilityRuleService.getRulesByServiceId(serviceId);
+        return ResponseEntity.ok(rules);
+    }
+
+    @GetMapping("/service/{serviceId}/occurrences")
+    public ResponseEntity<List<AvailabilityResponse>> getOccurrencesByServiceId(
+            @PathVariable Long serviceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        List<AvailabilityResponse> occurrences = availabilityRuleService
+                .getOccurrencesByServiceId(serviceId, startDate, endDate);
+        return ResponseEntity.ok(occurrences);
+    }
+
+    @PostMapping
+    public ResponseEntity<AvailabilityRuleResponse> createRule(
+            @Valid @RequestBody AvailabilityRuleRequest request) {
+        AvailabilityRuleResponse rule = availabilityRuleService.createRule(request);
+        return new ResponseEntity<>(rule, HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRule(@PathVariable Long id) {
+        availabilityRuleService.deleteRule(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping("/{id}/overrides")
+    public ResponseEntity<AvailabilityOverrideResponse> addOverride(
+            @PathVariable Long id,
+            @Valid @RequestBody AvailabilityOverrideRequest request) {
+        AvailabilityOverrideResponse override = availabilityRuleService.addOverride(id, request);
+        return ResponseEntity.ok(override);
+    }
+
+    @DeleteMapping("/overrides/{overrideId}")
+    public ResponseEntity<Void> deleteOverride(@PathVariable Long overrideId) {
+        availabilityRuleService.deleteOverride(overrideId);
+        return ResponseEntity.noContent().build();
+    }
+}
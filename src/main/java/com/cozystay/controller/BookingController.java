@@ -1,19 +1,28 @@
 package com.cozystay.controller;
 
 import com.cozystay.dto.booking.BookingDetailResponse;
+import com.cozystay.dto.booking.BookingHoldRequest;
+import com.cozystay.dto.booking.BookingHoldResponse;
 import com.cozystay.dto.booking.BookingRequest;
 import com.cozystay.dto.booking.BookingResponse;
+import com.cozystay.dto.booking.CartCheckoutRequest;
+import com.cozystay.dto.booking.CartCheckoutResponse;
 import com.cozystay.model.BookingStatus;
+import com.cozystay.paging.PagingMode;
+import com.cozystay.service.BookingExportService;
 import com.cozystay.service.BookingService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/bookings")
@@ -22,21 +31,39 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingExportService bookingExportService;
+
     @GetMapping
-    public ResponseEntity<Page<BookingResponse>> getCurrentUserBookings(
-            @PageableDefault(size = 10) Pageable pageable) {
-        Page<BookingResponse> bookings = bookingService.getCurrentUserBookings(pageable);
+    public ResponseEntity<Slice<BookingResponse>> getCurrentUserBookings(
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "page") String mode) {
+        Slice<BookingResponse> bookings = bookingService.getCurrentUserBookings(pageable, PagingMode.from(mode));
         return ResponseEntity.ok(bookings);
     }
 
     @GetMapping("/provider")
     @PreAuthorize("hasRole('PROVIDER') or hasRole('ADMIN')")
-    public ResponseEntity<Page<BookingResponse>> getBookingsForProvider(
-            @PageableDefault(size = 10) Pageable pageable) {
-        Page<BookingResponse> bookings = bookingService.getBookingsForProvider(pageable);
+    public ResponseEntity<Slice<BookingResponse>> getBookingsForProvider(
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "page") String mode) {
+        Slice<BookingResponse> bookings = bookingService.getBookingsForProvider(pageable, PagingMode.from(mode));
         return ResponseEntity.ok(bookings);
     }
 
+    @GetMapping("/provider/export")
+    @PreAuthorize("hasRole('PROVIDER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportProviderBookings(
+            @RequestParam(defaultValue = "csv") String format) {
+        BookingExportService.ExportFormat exportFormat = BookingExportService.ExportFormat.from(format);
+        StreamingResponseBody body = bookingExportService.exportProviderBookings(exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"provider-bookings." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BookingDetailResponse> getBookingById(@PathVariable Long id) {
         BookingDetailResponse booking = bookingService.getBookingById(id);
@@ -50,6 +77,26 @@ public class BookingController {
         return new ResponseEntity<>(booking, HttpStatus.CREATED);
     }
 
+    @PostMapping("/cart/checkout")
+    public ResponseEntity<CartCheckoutResponse> checkoutCart(
+            @Valid @RequestBody CartCheckoutRequest request) {
+        CartCheckoutResponse checkout = bookingService.checkoutCart(request);
+        return new ResponseEntity<>(checkout, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/holds")
+    public ResponseEntity<BookingHoldResponse> placeHold(
+            @Valid @RequestBody BookingHoldRequest request) {
+        BookingHoldResponse hold = bookingService.placeHold(request);
+        return new ResponseEntity<>(hold, HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/holds/{holdToken}")
+    public ResponseEntity<Void> releaseHold(@PathVariable String holdToken) {
+        bookingService.releaseHold(holdToken);
+        return ResponseEntity.noContent().build();
+    }
+
     @PatchMapping("/{id}/status")
     public ResponseEntity<BookingDetailResponse> updateBookingStatus(
             @PathVariable Long id,
@@ -60,19 +107,21 @@ public class BookingController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<Page<BookingResponse>> filterBookingsByStatus(
+    public ResponseEntity<Slice<BookingResponse>> filterBookingsByStatus(
             @PathVariable BookingStatus status,
-            @PageableDefault(size = 10) Pageable pageable) {
-        Page<BookingResponse> bookings = bookingService.filterBookingsByStatus(status, pageable);
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "page") String mode) {
+        Slice<BookingResponse> bookings = bookingService.filterBookingsByStatus(status, pageable, PagingMode.from(mode));
         return ResponseEntity.ok(bookings);
     }
 
     @GetMapping("/provider/status/{status}")
     @PreAuthorize("hasRole('PROVIDER') or hasRole('ADMIN')")
-    public ResponseEntity<Page<BookingResponse>> getProviderBookingsByStatus(
+    public ResponseEntity<Slice<BookingResponse>> getProviderBookingsByStatus(
             @PathVariable BookingStatus status,
-            @PageableDefault(size = 10) Pageable pageable) {
-        Page<BookingResponse> bookings = bookingService.getProviderBookingsByStatus(status, pageable);
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "page") String mode) {
+        Slice<BookingResponse> bookings = bookingService.getProviderBookingsByStatus(status, pageable, PagingMode.from(mode));
         return ResponseEntity.ok(bookings);
     }
 }
\ No newline at end of file
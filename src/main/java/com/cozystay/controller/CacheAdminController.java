@@ -0,0 +1,37 @@
+package com.cozystay.controller;
+
+import com.cozystay.dto.cache.CacheRegionStatsResponse;
+import com.cozystay.service.CacheAdminService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/cache")
+@PreAuthorize("hasRole('ADMIN')")
+public class CacheAdminController {
+
+    @Autowired
+    private CacheAdminService cacheAdminService;
+
+    @GetMapping
+    public ResponseEntity<List<CacheRegionStatsResponse>> getRegionStats() {
+        List<CacheRegionStatsResponse> regions = cacheAdminService.getRegionStats();
+        return ResponseEntity.ok(regions);
+    }
+
+    @DeleteMapping("/{region}")
+    public ResponseEntity<Void> evictRegion(@PathVariable String region) {
+        cacheAdminService.evictRegion(region);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> evictAll() {
+        cacheAdminService.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+}
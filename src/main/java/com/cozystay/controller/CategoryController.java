@@ -2,27 +2,38 @@ package com.cozystay.controller;
 
 import com.cozystay.dto.category.CategoryRequest;
 import com.cozystay.dto.category.CategoryResponse;
+import com.cozystay.model.Category;
 import com.cozystay.service.CategoryService;
+import com.cozystay.web.ConditionalGet;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
 @RequestMapping("/categories")
 public class CategoryController {
 
+    // Admin-managed and rarely edited; clients may reuse a copy for a minute before revalidating
+    private static final CacheControl CATEGORY_CACHE = CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic();
+
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private ConditionalGet conditionalGet;
+
     @GetMapping
-    public ResponseEntity<List<CategoryResponse>> getAllCategories() {
-        List<CategoryResponse> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<CategoryResponse>> getAllCategories(WebRequest request) {
+        return conditionalGet.collection(request, Category.class, CATEGORY_CACHE,
+                categoryService::getAllCategories);
     }
 
     @GetMapping("/admin")
@@ -33,9 +44,9 @@ public class CategoryController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable Long id) {
-        CategoryResponse category = categoryService.getCategoryById(id);
-        return ResponseEntity.ok(category);
+    public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable Long id, WebRequest request) {
+        return conditionalGet.single(request, Category.class, id, CATEGORY_CACHE,
+                () -> categoryService.getCategoryById(id), CategoryResponse::getUpdatedAt);
     }
 
     @PostMapping
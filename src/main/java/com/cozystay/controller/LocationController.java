@@ -2,30 +2,40 @@ package com.cozystay.controller;
 
 import com.cozystay.dto.location.LocationRequest;
 import com.cozystay.dto.location.LocationResponse;
+import com.cozystay.model.Location;
 import com.cozystay.service.LocationService;
+import com.cozystay.web.ConditionalGet;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
 @RequestMapping("/locations")
 public class LocationController {
 
+    private static final CacheControl LOCATION_CACHE = CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic();
+
     @Autowired
     private LocationService locationService;
 
+    @Autowired
+    private ConditionalGet conditionalGet;
+
     @GetMapping
-    public ResponseEntity<List<LocationResponse>> getAllLocations() {
-        List<LocationResponse> locations = locationService.getAllLocations();
-        return ResponseEntity.ok(locations);
+    public ResponseEntity<List<LocationResponse>> getAllLocations(WebRequest request) {
+        return conditionalGet.collection(request, Location.class, LOCATION_CACHE,
+                locationService::getAllLocations);
     }
 
     @GetMapping("/admin")
@@ -36,15 +46,15 @@ public class LocationController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<LocationResponse> getLocationById(@PathVariable Long id) {
-        LocationResponse location = locationService.getLocationById(id);
-        return ResponseEntity.ok(location);
+    public ResponseEntity<LocationResponse> getLocationById(@PathVariable Long id, WebRequest request) {
+        return conditionalGet.single(request, Location.class, id, LOCATION_CACHE,
+                () -> locationService.getLocationById(id), LocationResponse::getUpdatedAt);
     }
 
     @GetMapping("/popular")
-    public ResponseEntity<List<LocationResponse>> getPopularLocations() {
-        List<LocationResponse> locations = locationService.getPopularLocations();
-        return ResponseEntity.ok(locations);
+    public ResponseEntity<List<LocationResponse>> getPopularLocations(WebRequest request) {
+        return conditionalGet.collection(request, Location.class, LOCATION_CACHE,
+                locationService::getPopularLocations);
     }
 
     @GetMapping("/search")
@@ -0,0 +1,54 @@
+package com.cozystay.controller;
+
+import com.cozystay.dto.payment.PaymentRequest;
+import com.cozystay.dto.payment.PaymentResponse;
+import com.cozystay.service.PaymentService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/payments")
+public class PaymentController {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @GetMapping
+    public ResponseEntity<List<PaymentResponse>> getCurrentUserPayments() {
+        List<PaymentResponse> payments = paymentService.getCurrentUserPayments();
+        return ResponseEntity.ok(payments);
+    }
+
+    @GetMapping("/provider")
+    @PreAuthorize("hasRole('PROVIDER') or hasRole('ADMIN')")
+    public ResponseEntity<List<PaymentResponse>> getPaymentsForProvider() {
+        List<PaymentResponse> payments = paymentService.getPaymentsForProvider();
+        return ResponseEntity.ok(payments);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PaymentResponse> getPaymentById(@PathVariable Long id) {
+        PaymentResponse payment = paymentService.getPaymentById(id);
+        return ResponseEntity.ok(payment);
+    }
+
+    @GetMapping("/booking/{bookingId}")
+    public ResponseEntity<PaymentResponse> getPaymentByBookingId(@PathVariable Long bookingId) {
+        PaymentResponse payment = paymentService.getPaymentByBookingId(bookingId);
+        return ResponseEntity.ok(payment);
+    }
+
+    @PostMapping
+    public ResponseEntity<PaymentResponse> createPayment(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody PaymentRequest paymentRequest) {
+        PaymentResponse payment = paymentService.createPayment(idempotencyKey, paymentRequest);
+        return new ResponseEntity<>(payment, HttpStatus.CREATED);
+    }
+}
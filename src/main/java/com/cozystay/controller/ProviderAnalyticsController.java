@@ -0,0 +1,50 @@
+package com.cozystay.controller;
+
+import com.cozystay.dto.analytics.ProviderAnalyticsResponse;
+import com.cozystay.dto.analytics.ServiceAnalyticsResponse;
+import com.cozystay.service.ProviderAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/providers")
+public class ProviderAnalyticsController {
+
+    @Autowired
+    private ProviderAnalyticsService providerAnalyticsService;
+
+    @GetMapping("/me/analytics")
+    @PreAuthorize("hasRole('PROVIDER') or hasRole('ADMIN')")
+    public ResponseEntity<ProviderAnalyticsResponse> getAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        ProviderAnalyticsResponse analytics = providerAnalyticsService.getCurrentProviderAnalytics(start, end);
+        return ResponseEntity.ok(analytics);
+    }
+
+    @GetMapping("/me/analytics/services")
+    @PreAuthorize("hasRole('PROVIDER') or hasRole('ADMIN')")
+    public ResponseEntity<List<ServiceAnalyticsResponse>> getServiceAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        List<ServiceAnalyticsResponse> analytics = providerAnalyticsService.getCurrentProviderServiceAnalytics(start, end);
+        return ResponseEntity.ok(analytics);
+    }
+
+    @PostMapping("/analytics/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildAnalytics() {
+        providerAnalyticsService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -3,11 +3,12 @@ package com.cozystay.controller;
 import com.cozystay.dto.review.ReviewRequest;
 import com.cozystay.dto.review.ReviewResponse;
 import com.cozystay.dto.review.ReviewUpdateRequest;
+import com.cozystay.paging.PagingMode;
 import com.cozystay.service.ReviewService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -22,25 +23,28 @@ public class ReviewController {
     private ReviewService reviewService;
 
     @GetMapping("/service/{serviceId}")
-    public ResponseEntity<Page<ReviewResponse>> getReviewsByServiceId(
+    public ResponseEntity<Slice<ReviewResponse>> getReviewsByServiceId(
             @PathVariable Long serviceId,
-            @PageableDefault(size = 10) Pageable pageable) {
-        Page<ReviewResponse> reviews = reviewService.getReviewsByServiceId(serviceId, pageable);
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "page") String mode) {
+        Slice<ReviewResponse> reviews = reviewService.getReviewsByServiceId(serviceId, pageable, PagingMode.from(mode));
         return ResponseEntity.ok(reviews);
     }
 
     @GetMapping("/user")
-    public ResponseEntity<Page<ReviewResponse>> getReviewsByUser(
-            @PageableDefault(size = 10) Pageable pageable) {
-        Page<ReviewResponse> reviews = reviewService.getReviewsByUser(pageable);
+    public ResponseEntity<Slice<ReviewResponse>> getReviewsByUser(
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "page") String mode) {
+        Slice<ReviewResponse> reviews = reviewService.getReviewsByUser(pageable, PagingMode.from(mode));
         return ResponseEntity.ok(reviews);
     }
 
     @GetMapping("/provider")
     @PreAuthorize("hasRole('PROVIDER') or hasRole('ADMIN')")
-    public ResponseEntity<Page<ReviewResponse>> getReviewsForProvider(
-            @PageableDefault(size = 10) Pageable pageable) {
-        Page<ReviewResponse> reviews = reviewService.getReviewsForProvider(pageable);
+    public ResponseEntity<Slice<ReviewResponse>> getReviewsForProvider(
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "page") String mode) {
+        Slice<ReviewResponse> reviews = reviewService.getReviewsForProvider(pageable, PagingMode.from(mode));
         return ResponseEntity.ok(reviews);
     }
 
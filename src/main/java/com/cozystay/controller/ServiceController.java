@@ -4,97 +4,136 @@ import com.cozystay.dto.service.CreateServiceRequest;
 import com.cozystay.dto.service.ServiceDetailResponse;
 import com.cozystay.dto.service.ServiceResponse;
 import com.cozystay.dto.service.UpdateServiceRequest;
+import com.cozystay.model.Category;
+import com.cozystay.model.Location;
+import com.cozystay.model.Service;
 import com.cozystay.model.ServiceType;
+import com.cozystay.model.User;
+import com.cozystay.paging.PagingMode;
 import com.cozystay.service.ServiceManagementService;
+import com.cozystay.web.ConditionalGet;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/services")
 public class ServiceController {
 
+    // Detail pages change with ratings and edits: always revalidate, usually as a 304
+    private static final CacheControl SERVICE_DETAIL_CACHE = CacheControl.noCache().cachePublic();
+
+    // Rows embedded in the detail response besides the service itself
+    private static final List<Class<?>> SERVICE_DETAIL_EMBEDS = List.of(Category.class, Location.class, User.class);
+
     @Autowired
     private ServiceManagementService serviceManagementService;
 
+    @Autowired
+    private ConditionalGet conditionalGet;
+
     @GetMapping
-    public ResponseEntity<Page<ServiceResponse>> getAllServices(
-            @PageableDefault(size = 10) Pageable pageable) {
-        Page<ServiceResponse> services = serviceManagementService.getAllServices(pageable);
+    public ResponseEntity<Slice<ServiceResponse>> getAllServices(
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "page") String mode) {
+        Slice<ServiceResponse> services = serviceManagementService.getAllServices(pageable, PagingMode.from(mode));
         return ResponseEntity.ok(services);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ServiceDetailResponse> getServiceById(@PathVariable Long id) {
-        ServiceDetailResponse service = serviceManagementService.getServiceById(id);
-        return ResponseEntity.ok(service);
+    public ResponseEntity<ServiceDetailResponse> getServiceById(@PathVariable Long id, WebRequest request) {
+        return conditionalGet.single(request, Service.class, id, SERVICE_DETAIL_EMBEDS, SERVICE_DETAIL_CACHE,
+                () -> serviceManagementService.getServiceById(id), ServiceController::lastModified);
+    }
+
+    // Latest change to the service or to the category, location and provider shown with it
+    private static LocalDateTime lastModified(ServiceDetailResponse detail) {
+        return Stream.of(detail.getUpdatedAt(),
+                        detail.getCategory() == null ? null : detail.getCategory().getUpdatedAt(),
+                        detail.getLocation() == null ? null : detail.getLocation().getUpdatedAt(),
+                        detail.getUser() == null ? null : detail.getUser().getUpdatedAt())
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<Page<ServiceResponse>> getServicesByType(
+    public ResponseEntity<Slice<ServiceResponse>> getServicesByType(
             @PathVariable ServiceType type,
-            @PageableDefault(size = 10) Pageable pageable) {
-        Page<ServiceResponse> services = serviceManagementService.getServicesByType(type, pageable);
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "page") String mode) {
+        Slice<ServiceResponse> services = serviceManagementService.getServicesByType(type, pageable, PagingMode.from(mode));
         return ResponseEntity.ok(services);
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<Page<ServiceResponse>> getServicesByCategory(
+    public ResponseEntity<Slice<ServiceResponse>> getServicesByCategory(
             @PathVariable Long categoryId,
-            @PageableDefault(size = 10) Pageable pageable) {
-        Page<ServiceResponse> services = serviceManagementService.getServicesByCategory(categoryId, pageable);
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "page") String mode) {
+        Slice<ServiceResponse> services = serviceManagementService.getServicesByCategory(categoryId, pageable, PagingMode.from(mode));
         return ResponseEntity.ok(services);
     }
 
     @GetMapping("/location/{locationId}")
-    public ResponseEntity<Page<ServiceResponse>> getServicesByLocation(
+    public ResponseEntity<Slice<ServiceResponse>> getServicesByLocation(
             @PathVariable Long locationId,
-            @PageableDefault(size = 10) Pageable pageable) {
-        Page<ServiceResponse> services = serviceManagementService.getServicesByLocation(locationId, pageable);
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "page") String mode) {
+        Slice<ServiceResponse> services = serviceManagementService.getServicesByLocation(locationId, pageable, PagingMode.from(mode));
         return ResponseEntity.ok(services);
     }
 
     @GetMapping("/price")
-    public ResponseEntity<Page<ServiceResponse>> getServicesByPriceRange(
+    public ResponseEntity<Slice<ServiceResponse>> getServicesByPriceRange(
             @RequestParam BigDecimal minPrice,
             @RequestParam BigDecimal maxPrice,
-            @PageableDefault(size = 10) Pageable pageable) {
-        Page<ServiceResponse> services = serviceManagementService.getServicesByPriceRange(minPrice, maxPrice, pageable);
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "page") String mode) {
+        Slice<ServiceResponse> services = serviceManagementService.getServicesByPriceRange(minPrice, maxPrice, pageable, PagingMode.from(mode));
         return ResponseEntity.ok(services);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<ServiceResponse>> searchServices(
+    public ResponseEntity<Slice<ServiceResponse>> searchServices(
             @RequestParam String keyword,
-            @PageableDefault(size = 10) Pageable pageable) {
-        Page<ServiceResponse> services = serviceManagementService.searchServices(keyword, pageable);
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "page") String mode) {
+        Slice<ServiceResponse> services = serviceManagementService.searchServices(keyword, pageable, PagingMode.from(mode));
         return ResponseEntity.ok(services);
     }
 
     @GetMapping("/provider/{providerId}")
-    public ResponseEntity<Page<ServiceResponse>> getServicesByProvider(
+    public ResponseEntity<Slice<ServiceResponse>> getServicesByProvider(
             @PathVariable Long providerId,
-            @PageableDefault(size = 10) Pageable pageable) {
-        Page<ServiceResponse> services = serviceManagementService.getServicesByProvider(providerId, pageable);
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "page") String mode) {
+        Slice<ServiceResponse> services = serviceManagementService.getServicesByProvider(providerId, pageable, PagingMode.from(mode));
         return ResponseEntity.ok(services);
     }
 
     @GetMapping("/top-rated")
-    public ResponseEntity<Page<ServiceResponse>> getTopRatedServices(
-            @PageableDefault(size = 10) Pageable pageable) {
-        Page<ServiceResponse> services = serviceManagementService.getTopRatedServices(pageable);
+    public ResponseEntity<Slice<ServiceResponse>> getTopRatedServices(
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "page") String mode) {
+        Slice<ServiceResponse> services = serviceManagementService.getTopRatedServices(pageable, PagingMode.from(mode));
         return ResponseEntity.ok(services);
     }
 
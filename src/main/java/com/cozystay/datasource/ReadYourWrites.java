@@ -0,0 +1,56 @@
+package com.cozystay.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a user's reads on the primary for a short window after they wrote something, so they
+ * never see their own change missing from a lagging replica.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final Map<Long, Long> primaryUntil = new ConcurrentHashMap<>();
+
+    @Value("${datasource.replicas.sticky-ms:5000}")
+    private long stickyMs;
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+
+    public void recordWrite(Long userId) {
+        long now = System.currentTimeMillis();
+        if (primaryUntil.size() >= PURGE_THRESHOLD) {
+            primaryUntil.values().removeIf(until -> until <= now);
+        }
+        primaryUntil.put(userId, now + stickyMs);
+    }
+
+    public boolean mustReadPrimary(Long userId) {
+        Long until = primaryUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until <= System.currentTimeMillis()) {
+            primaryUntil.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+
+    public void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public void clear() {
+        PINNED.remove();
+    }
+}
@@ -0,0 +1,52 @@
+package com.cozystay.datasource;
+
+import com.cozystay.model.User;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+
+@Component
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        User user = currentUser();
+        if (user != null && readYourWrites.mustReadPrimary(user.getId())) {
+            readYourWrites.pin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        try {
+            User user = currentUser();
+            if (user != null && ex == null && response.getStatus() < 400
+                    && !SAFE_METHODS.contains(request.getMethod())) {
+                readYourWrites.recordWrite(user.getId());
+            }
+        } finally {
+            readYourWrites.clear();
+        }
+    }
+
+    private User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cozystay.datasource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "datasource.replicas", name = "urls")
+public class ReplicaLagMonitor {
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        replicaRoutingDataSource.refreshLag();
+    }
+}
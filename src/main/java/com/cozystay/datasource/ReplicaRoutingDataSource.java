@@ -0,0 +1,136 @@
+package com.cozystay.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica that is reachable and within the lag limit, and
+ * everything else to the primary. Must sit behind a LazyConnectionDataSourceProxy so the
+ * connection is taken after the transaction's read-only flag has been bound.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    // Zero when the replica has replayed everything it received (or is not a standby at all)
+    private static final String LAG_SQL =
+            "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE((EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000)::bigint, 0) END";
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<String> eligible = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long maxLagMs) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.put("replica-" + i, replicas.get(i));
+        }
+        this.maxLagMs = maxLagMs;
+
+        Map<Object, Object> targets = new HashMap<>(this.replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        refreshLag();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWrites.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        List<String> candidates = eligible;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            return primary.getConnection();
+        }
+        try {
+            return replicas.get(key).getConnection();
+        } catch (SQLException ex) {
+            // Don't wait for the next lag check to stop sending reads to a replica that is down
+            logger.warn("Replica {} unavailable, reading from primary: {}", key, ex.getMessage());
+            exclude((String) key);
+            return primary.getConnection();
+        }
+    }
+
+    public void refreshLag() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            try (Connection connection = replica.getValue().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                rs.next();
+                long lagMs = rs.getLong(1);
+                if (lagMs <= maxLagMs) {
+                    healthy.add(replica.getKey());
+                } else {
+                    logger.warn("Replica {} is {} ms behind (limit {} ms), reading from primary",
+                            replica.getKey(), lagMs, maxLagMs);
+                }
+            } catch (SQLException ex) {
+                logger.warn("Replica {} lag check failed: {}", replica.getKey(), ex.getMessage());
+            }
+        }
+
+        if (!healthy.equals(eligible)) {
+            logger.info("Replicas serving reads: {}", healthy);
+        }
+        eligible = List.copyOf(healthy);
+    }
+
+    private synchronized void exclude(String key) {
+        List<String> remaining = new ArrayList<>(eligible);
+        remaining.remove(key);
+        eligible = List.copyOf(remaining);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.cozystay.datasource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+/**
+ * Moves id sequences past the rows that were inserted before the table was sequence-backed.
+ * Schema update creates such a sequence at 1 on an existing database, so without this the
+ * first batch of inserts would collide with old ids. Runs before the server takes requests
+ * and only ever advances a sequence, so restarts and other nodes' allocations are safe.
+ */
+@Component
+public class SequenceAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceAligner.class);
+
+    // Sequence -> table whose ids it hands out
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "availabilities_seq", "availabilities");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PostConstruct
+    public void init() {
+        // setval and the sequence's last_value are PostgreSQL's; other databases start empty
+        if (!(entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                instanceof PostgreSQLDialect)) {
+            return;
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        SEQUENCES.forEach((sequence, table) -> {
+            Number value = transactionTemplate.execute(status -> (Number) entityManager.createNativeQuery(
+                    "SELECT setval('" + sequence + "', GREATEST("
+                            + "(SELECT COALESCE(MAX(id), 0) FROM " + table + "), "
+                            + "(SELECT last_value FROM " + sequence + "), 1))")
+                    .getSingleResult());
+            logger.info("Sequence {} aligned with {} at {}", sequence, table, value);
+        });
+    }
+}
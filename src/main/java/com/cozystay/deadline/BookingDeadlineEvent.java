@@ -0,0 +1,10 @@
+package com.cozystay.deadline;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@link BookingDeadlineScheduler} inside the transaction that advances its cursor,
+ * so a listener that writes in the same transaction sees each deadline exactly once.
+ */
+public record BookingDeadlineEvent(Long bookingId, DeadlineType type, LocalDateTime dueAt) {
+}
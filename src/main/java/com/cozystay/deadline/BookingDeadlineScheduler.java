@@ -0,0 +1,317 @@
+package com.cozystay.deadline;
+
+import com.cozystay.model.BookingStatus;
+import com.cozystay.repository.BookingRepository;
+import com.cozystay.repository.SchedulerCursorRepository;
+import com.cozystay.repository.projection.BookingStatusView;
+import com.cozystay.repository.projection.DeadlineCandidateView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Fires booking deadlines from an in-memory timing wheel instead of polling for due rows.
+ * The node holding the cursor lease loads the next window of deadlines into the wheel, and it
+ * re-scans only bookings written since its last scan for deadlines that fall inside the part it
+ * has already loaded. On each tick, the due events are published in the same transaction that
+ * advances the persisted cursor. A restart or failover resumes from that cursor. Listeners that
+ * write in that transaction therefore see each deadline once. A listener that throws rolls back
+ * the whole batch, which is delivered again.
+ */
+@Component
+public class BookingDeadlineScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingDeadlineScheduler.class);
+
+    static final String CURSOR_NAME = "booking-deadlines";
+
+    // Full window loads accept any row; only re-scans filter on updatedAt
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private SchedulerCursorRepository cursorRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.deadlines.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${booking.deadlines.wheel-size:64}")
+    private int wheelSize;
+
+    @Value("${booking.deadlines.window-minutes:30}")
+    private long windowMinutes;
+
+    @Value("${booking.deadlines.lease-seconds:90}")
+    private long leaseSeconds;
+
+    @Value("${booking.deadlines.rescan-margin-seconds:60}")
+    private long rescanMarginSeconds;
+
+    @Value("${booking.deadlines.check-in-reminder-hours:24}")
+    private long checkInReminderHours;
+
+    @Value("${booking.deadlines.confirm-warning-minutes:120}")
+    private long confirmWarningMinutes;
+
+    @Value("${booking.expiry.pending-ttl-minutes:1440}")
+    private long pendingTtlMinutes;
+
+    @Value("${booking.deadlines.review-prompt-hours:2}")
+    private long reviewPromptHours;
+
+    private final String owner = UUID.randomUUID().toString();
+    private final Map<DeadlineType, Counter> firedCounters = new EnumMap<>(DeadlineType.class);
+    private TransactionTemplate transactionTemplate;
+
+    // Only set while this node holds the lease
+    private HierarchicalTimingWheel<BookingDeadlineEvent> wheel;
+    private final Set<String> scheduledKeys = new HashSet<>();
+    private LocalDateTime loadedThrough;
+    private LocalDateTime lastScanAt;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        for (DeadlineType type : DeadlineType.values()) {
+            firedCounters.put(type, Counter.builder("cozystay.deadlines.fired")
+                    .description("Booking deadline events published")
+                    .tag("type", type.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("cozystay.deadlines.scheduled", this, BookingDeadlineScheduler::scheduledCount)
+                .description("Booking deadlines waiting in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.deadlines.refresh-ms:30000}")
+    public synchronized void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        boolean held;
+        try {
+            held = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                cursorRepository.createIfMissing(CURSOR_NAME, now);
+                return cursorRepository.acquireLease(CURSOR_NAME, owner, now.plusSeconds(leaseSeconds), now) == 1;
+            }));
+        } catch (RuntimeException ex) {
+            logger.error("Could not renew the booking deadline lease", ex);
+            held = false;
+        }
+
+        if (!held) {
+            if (wheel != null) {
+                logger.info("Booking deadline lease lost; another node took over");
+                reset();
+            }
+            return;
+        }
+
+        try {
+            if (wheel == null) {
+                LocalDateTime firedBefore = cursorRepository.findById(CURSOR_NAME)
+                        .orElseThrow()
+                        .getFiredBefore();
+                wheel = new HierarchicalTimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+                // Deadlines missed while no node held the lease come out of load() as due now
+                loadedThrough = firedBefore;
+                logger.info("Booking deadline lease acquired; resuming from {}", firedBefore);
+            }
+
+            deliver(load(now));
+        } catch (RuntimeException ex) {
+            logger.error("Could not load booking deadlines", ex);
+            reset();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.deadlines.tick-ms:1000}")
+    public synchronized void tick() {
+        if (wheel == null) {
+            return;
+        }
+        List<BookingDeadlineEvent> due = new ArrayList<>();
+        wheel.advance(System.currentTimeMillis(), due::add);
+        if (!due.isEmpty()) {
+            deliver(due);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (wheel == null) {
+            return;
+        }
+        try {
+            // Lets another node take over now rather than after the lease runs out
+            transactionTemplate.executeWithoutResult(status -> cursorRepository.releaseLease(CURSOR_NAME, owner));
+        } catch (RuntimeException ex) {
+            logger.warn("Could not release the booking deadline lease", ex);
+        }
+        reset();
+    }
+
+    private synchronized int scheduledCount() {
+        return wheel == null ? 0 : wheel.size();
+    }
+
+    // Schedules what is new since the last call and returns what is already due
+    private List<BookingDeadlineEvent> load(LocalDateTime now) {
+        List<BookingDeadlineEvent> due = new ArrayList<>();
+        LocalDateTime firedBefore = toLocalDateTime(wheel.firedBeforeMs());
+
+        if (lastScanAt != null && firedBefore.isBefore(loadedThrough)) {
+            // Bookings written since the last scan whose deadline falls in the part already loaded
+            loadRange(firedBefore, loadedThrough, lastScanAt.minusSeconds(rescanMarginSeconds), due);
+        }
+
+        LocalDateTime target = now.plusMinutes(windowMinutes);
+        if (loadedThrough.isBefore(target)) {
+            loadRange(loadedThrough, target, EPOCH, due);
+            loadedThrough = target;
+        }
+
+        lastScanAt = now;
+        return due;
+    }
+
+    private void loadRange(LocalDateTime from, LocalDateTime to, LocalDateTime changedSince,
+                           List<BookingDeadlineEvent> due) {
+        for (DeadlineType type : DeadlineType.values()) {
+            Duration offset = offset(type);
+            for (DeadlineCandidateView candidate : findCandidates(type, from.minus(offset), to.minus(offset), changedSince)) {
+                BookingDeadlineEvent event = new BookingDeadlineEvent(candidate.getId(), type,
+                        candidate.getAnchor().plus(offset));
+                if (!scheduledKeys.add(key(event))) {
+                    continue;
+                }
+                if (!wheel.schedule(toMillis(event.dueAt()), event)) {
+                    due.add(event);
+                }
+            }
+        }
+    }
+
+    private void deliver(List<BookingDeadlineEvent> due) {
+        // Nothing past loadedThrough has been looked at yet, even if the wheel has moved beyond it
+        LocalDateTime wheelFiredBefore = toLocalDateTime(wheel.firedBeforeMs());
+        LocalDateTime firedBefore = wheelFiredBefore.isBefore(loadedThrough) ? wheelFiredBefore : loadedThrough;
+
+        Map<Long, BookingStatus> statuses = due.isEmpty()
+                ? Map.of()
+                : bookingRepository.findStatusesByIdIn(due.stream().map(BookingDeadlineEvent::bookingId)
+                        .collect(Collectors.toSet())).stream()
+                        .collect(Collectors.toMap(BookingStatusView::getId, BookingStatusView::getStatus));
+
+        List<BookingDeadlineEvent> published;
+        try {
+            published = transactionTemplate.execute(status -> {
+                if (cursorRepository.advance(CURSOR_NAME, owner, firedBefore, LocalDateTime.now()) == 0) {
+                    throw new IllegalStateException("Booking deadline lease is no longer held");
+                }
+                List<BookingDeadlineEvent> events = new ArrayList<>();
+                for (BookingDeadlineEvent event : due) {
+                    // The booking may have moved on since it was loaded (cancelled, confirmed, ...)
+                    if (stillApplies(event.type(), statuses.get(event.bookingId()))) {
+                        eventPublisher.publishEvent(event);
+                        events.add(event);
+                    }
+                }
+                return events;
+            });
+        } catch (RuntimeException ex) {
+            // The next refresh reloads from the stored cursor, so this batch is delivered again
+            logger.error("Could not deliver {} booking deadlines", due.size(), ex);
+            reset();
+            return;
+        }
+
+        for (BookingDeadlineEvent event : due) {
+            scheduledKeys.remove(key(event));
+        }
+        for (BookingDeadlineEvent event : published) {
+            firedCounters.get(event.type()).increment();
+        }
+    }
+
+    private void reset() {
+        wheel = null;
+        scheduledKeys.clear();
+        loadedThrough = null;
+        lastScanAt = null;
+    }
+
+    private List<DeadlineCandidateView> findCandidates(DeadlineType type, LocalDateTime from, LocalDateTime to,
+                                                       LocalDateTime changedSince) {
+        return switch (type) {
+            case CHECK_IN_REMINDER -> bookingRepository.findConfirmedStartingBetween(from, to, changedSince);
+            case CONFIRM_DEADLINE -> bookingRepository.findPendingCreatedBetween(from, to, changedSince);
+            case REVIEW_PROMPT -> bookingRepository.findStaysEndingBetween(from, to, changedSince);
+        };
+    }
+
+    // Due time relative to the anchor column each query returns
+    private Duration offset(DeadlineType type) {
+        return switch (type) {
+            case CHECK_IN_REMINDER -> Duration.ofHours(-checkInReminderHours);
+            case CONFIRM_DEADLINE -> Duration.ofMinutes(pendingTtlMinutes - confirmWarningMinutes);
+            case REVIEW_PROMPT -> Duration.ofHours(reviewPromptHours);
+        };
+    }
+
+    private boolean stillApplies(DeadlineType type, BookingStatus status) {
+        if (status == null) {
+            return false;
+        }
+        return switch (type) {
+            case CHECK_IN_REMINDER -> status == BookingStatus.CONFIRMED;
+            case CONFIRM_DEADLINE -> status == BookingStatus.PENDING;
+            case REVIEW_PROMPT -> status == BookingStatus.CONFIRMED || status == BookingStatus.COMPLETED;
+        };
+    }
+
+    private static String key(BookingDeadlineEvent event) {
+        return event.type().name() + ":" + event.bookingId();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
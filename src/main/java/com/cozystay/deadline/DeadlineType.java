@@ -0,0 +1,10 @@
+package com.cozystay.deadline;
+
+public enum DeadlineType {
+    // Guest reminder ahead of a confirmed stay
+    CHECK_IN_REMINDER,
+    // Provider warning before an unconfirmed booking is expired (see BookingExpiryJob)
+    CONFIRM_DEADLINE,
+    // Guest prompt to review once the stay has ended
+    REVIEW_PROMPT
+}
@@ -0,0 +1,116 @@
+package com.cozystay.deadline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: each level is a ring of buckets one tick wide, and deadlines beyond a
+ * level's span go to a coarser overflow level whose tick is the whole span of the level below.
+ * When a coarse bucket comes due its entries cascade down, so scheduling and firing are O(1) per
+ * entry however far out the deadline is. Entries fire at most one base tick early.
+ * Not thread-safe; the owner serializes {@link #schedule} and {@link #advance}.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private record Entry<T>(long dueAtMs, T payload) {
+    }
+
+    private final class Level {
+
+        private final long tickMs;
+        private final long intervalMs;
+        private final List<List<Entry<T>>> buckets;
+        private long currentTimeMs;
+        private Level overflow;
+
+        Level(long tickMs, long startMs) {
+            this.tickMs = tickMs;
+            this.intervalMs = tickMs * wheelSize;
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayList<>());
+            }
+            this.currentTimeMs = startMs - (startMs % tickMs);
+        }
+
+        boolean add(Entry<T> entry) {
+            if (entry.dueAtMs() < currentTimeMs + tickMs) {
+                return false;
+            }
+            if (entry.dueAtMs() < currentTimeMs + intervalMs) {
+                buckets.get(index(entry.dueAtMs())).add(entry);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(intervalMs, currentTimeMs);
+            }
+            return overflow.add(entry);
+        }
+
+        List<Entry<T>> take(long timeMs) {
+            int index = index(timeMs);
+            List<Entry<T>> bucket = buckets.get(index);
+            if (bucket.isEmpty()) {
+                return List.of();
+            }
+            buckets.set(index, new ArrayList<>());
+            return bucket;
+        }
+
+        private int index(long timeMs) {
+            return (int) ((timeMs / tickMs) % wheelSize);
+        }
+    }
+
+    private final int wheelSize;
+    private final Level root;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.wheelSize = wheelSize;
+        this.root = new Level(tickMs, startMs);
+    }
+
+    /**
+     * Returns false without keeping the payload when it is already due (within the current tick);
+     * the caller should fire it right away.
+     */
+    public boolean schedule(long dueAtMs, T payload) {
+        if (!root.add(new Entry<>(dueAtMs, payload))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    // Moves the clock to nowMs one tick at a time, handing every entry that comes due to fire
+    public void advance(long nowMs, Consumer<T> fire) {
+        while (root.currentTimeMs + root.tickMs <= nowMs) {
+            tick(root, root.currentTimeMs + root.tickMs, fire);
+        }
+    }
+
+    // Everything due before this has been handed to fire
+    public long firedBeforeMs() {
+        return root.currentTimeMs + root.tickMs;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void tick(Level level, long timeMs, Consumer<T> fire) {
+        level.currentTimeMs = timeMs;
+        if (level.overflow != null && timeMs % level.intervalMs == 0) {
+            tick(level.overflow, timeMs, fire);
+        }
+        for (Entry<T> entry : level.take(timeMs)) {
+            // Coarse entries land in a finer level; base-level entries are due now
+            if (!root.add(entry)) {
+                size--;
+                fire.accept(entry.payload());
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.cozystay.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailyAnalyticsResponse {
+
+    private LocalDate date;
+    private long bookings;
+    private long nights;
+    private long cancellations;
+    private BigDecimal revenue;
+    private Double averageRating;
+}
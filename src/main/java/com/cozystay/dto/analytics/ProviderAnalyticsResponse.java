@@ -0,0 +1,24 @@
+package com.cozystay.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProviderAnalyticsResponse {
+
+    private LocalDate from;
+    private LocalDate to;
+    private long bookings;
+    private long nights;
+    private long cancellations;
+    private BigDecimal revenue;
+    private Double averageRating;
+    private List<DailyAnalyticsResponse> daily;
+}
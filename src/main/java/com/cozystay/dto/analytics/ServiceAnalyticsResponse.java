@@ -0,0 +1,23 @@
+package com.cozystay.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ServiceAnalyticsResponse {
+
+    private Long serviceId;
+    private String title;
+    private long bookings;
+    private long nights;
+    private long cancellations;
+    private BigDecimal revenue;
+    private Double averageRating;
+    // Booked nights divided by the number of days in the requested range
+    private double occupancyRate;
+}
@@ -0,0 +1,15 @@
+package com.cozystay.dto.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountAvailabilityResponse {
+
+    // Null when the value was not part of the request
+    private Boolean usernameAvailable;
+    private Boolean emailAvailable;
+}
@@ -14,6 +14,7 @@ import java.util.Set;
 public class JwtAuthenticationResponse {
 
     private String token;
+    private String refreshToken;
 //    private User user;
     private Long userId;
     private String username;
@@ -0,0 +1,26 @@
+package com.cozystay.dto.availability;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailabilityOverrideRequest {
+
+    @NotNull(message = "Occurrence date cannot be null")
+    private LocalDate occurrenceDate;
+
+    private boolean isAvailable = false;
+
+    private LocalTime startTime;
+
+    private LocalTime endTime;
+
+    private String notes;
+}
@@ -0,0 +1,24 @@
+package com.cozystay.dto.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailabilityOverrideResponse {
+
+    private Long id;
+    private Long ruleId;
+    private LocalDate occurrenceDate;
+    private boolean isAvailable;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private String notes;
+    private LocalDateTime createdAt;
+}
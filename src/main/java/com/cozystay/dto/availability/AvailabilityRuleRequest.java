@@ -0,0 +1,39 @@
+package com.cozystay.dto.availability;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailabilityRuleRequest {
+
+    @NotNull(message = "Service ID cannot be null")
+    private Long serviceId;
+
+    @NotEmpty(message = "At least one day of week is required")
+    private Set<DayOfWeek> daysOfWeek;
+
+    @NotNull(message = "Start time cannot be null")
+    private LocalTime startTime;
+
+    @NotNull(message = "End time cannot be null")
+    private LocalTime endTime;
+
+    @NotNull(message = "Valid from date cannot be null")
+    private LocalDate validFrom;
+
+    private LocalDate validUntil;
+
+    private boolean isAvailable = true;
+
+    private String notes;
+}
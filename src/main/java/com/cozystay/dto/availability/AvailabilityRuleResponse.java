@@ -0,0 +1,31 @@
+package com.cozystay.dto.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailabilityRuleResponse {
+
+    private Long id;
+    private Long serviceId;
+    private Set<DayOfWeek> daysOfWeek;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private LocalDate validFrom;
+    private LocalDate validUntil;
+    private boolean isAvailable;
+    private String notes;
+    private List<AvailabilityOverrideResponse> overrides;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,26 @@
+package com.cozystay.dto.booking;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingHoldRequest {
+
+    @NotNull(message = "Service ID cannot be null")
+    private Long serviceId;
+
+    @NotNull(message = "Start date cannot be null")
+    @Future(message = "Start date must be in the future")
+    private LocalDateTime startDateTime;
+
+    @NotNull(message = "End date cannot be null")
+    @Future(message = "End date must be in the future")
+    private LocalDateTime endDateTime;
+}
@@ -0,0 +1,18 @@
+package com.cozystay.dto.booking;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartCheckoutRequest {
+
+    @NotEmpty(message = "Cart cannot be empty")
+    private List<@Valid BookingRequest> items;
+}
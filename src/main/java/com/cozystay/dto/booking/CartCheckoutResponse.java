@@ -0,0 +1,18 @@
+package com.cozystay.dto.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartCheckoutResponse {
+
+    // In the order of the request's items
+    private List<BookingDetailResponse> bookings;
+    private BigDecimal totalPrice;
+}
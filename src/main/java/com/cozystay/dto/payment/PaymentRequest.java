@@ -0,0 +1,21 @@
+package com.cozystay.dto.payment;
+
+import com.cozystay.model.PaymentMethod;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaymentRequest {
+
+    @NotNull(message = "Booking ID cannot be null")
+    private Long bookingId;
+
+    @NotNull(message = "Payment method cannot be null")
+    private PaymentMethod method;
+
+    private String notes;
+}
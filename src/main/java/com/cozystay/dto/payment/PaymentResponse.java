@@ -15,6 +15,7 @@ import java.time.LocalDateTime;
 public class PaymentResponse {
 
     private Long id;
+    private Long bookingId;
     private String transactionId;
     private BigDecimal amount;
     private PaymentStatus status;
@@ -20,6 +20,7 @@ import java.util.Set;
 public class ServiceDetailResponse {
 
     private Long id;
+    private Long version;
     private String title;
     private String description;
     private ServiceType type;
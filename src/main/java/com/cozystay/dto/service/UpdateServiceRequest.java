@@ -46,4 +46,7 @@ public class UpdateServiceRequest {
     private String thumbnailUrl;
 
     private Long categoryId;
+
+    // Version the client last read; when present, a newer server copy makes the update fail with 409
+    private Long version;
 }
\ No newline at end of file
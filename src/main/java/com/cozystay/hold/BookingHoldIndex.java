@@ -0,0 +1,162 @@
+package com.cozystay.hold;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Checkout holds placed on this node, per service. Each service's list is replaced, never
+ * mutated, so reads take no lock. A hold stops counting once expiresAt passes. Nothing is written
+ * when that happens: expired holds are dropped on the service's next write or by the sweep.
+ */
+@Component
+public class BookingHoldIndex {
+
+    public record Hold(String token, Long userId, LocalDateTime startDateTime, LocalDateTime endDateTime,
+                       LocalDateTime expiresAt) {
+
+        boolean isActive(LocalDateTime now) {
+            return expiresAt.isAfter(now);
+        }
+
+        // Same half-open overlap as BookingHoldRepository.existsHeldByOther
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            return startDateTime.isBefore(end) && endDateTime.isAfter(start);
+        }
+    }
+
+    private final ConcurrentMap<Long, List<Hold>> holdsByService = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> serviceByToken = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("cozystay.booking.holds.active", serviceByToken, ConcurrentMap::size)
+                .description("Checkout holds kept on this node (expired ones until swept)")
+                .register(meterRegistry);
+    }
+
+    // Active holds by other guests overlapping the window, for trimming availability
+    public List<Hold> heldByOthers(Long serviceId, LocalDateTime start, LocalDateTime end, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Hold> held = new ArrayList<>();
+        for (Hold hold : holdsByService.getOrDefault(serviceId, List.of())) {
+            if (hold.isActive(now) && !hold.userId().equals(userId) && hold.overlaps(start, end)) {
+                held.add(hold);
+            }
+        }
+        return held;
+    }
+
+    public boolean isHeldByOther(Long serviceId, LocalDateTime start, LocalDateTime end, Long userId) {
+        return !heldByOthers(serviceId, start, end, userId).isEmpty();
+    }
+
+    // The guest's active holds on this node, across services
+    public int countActiveForUser(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        int count = 0;
+        for (List<Hold> holds : holdsByService.values()) {
+            for (Hold hold : holds) {
+                if (hold.isActive(now) && hold.userId().equals(userId)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds the hold unless another guest's active hold overlaps it. The check and the add are
+     * atomic for the service.
+     */
+    public boolean tryPlace(Long serviceId, Hold hold) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean[] placed = new boolean[1];
+        holdsByService.compute(serviceId, (id, holds) -> {
+            List<Hold> next = new ArrayList<>();
+            if (holds != null) {
+                for (Hold existing : holds) {
+                    if (!existing.isActive(now)) {
+                        serviceByToken.remove(existing.token());
+                        continue;
+                    }
+                    if (!existing.userId().equals(hold.userId())
+                            && existing.overlaps(hold.startDateTime(), hold.endDateTime())) {
+                        return holds;
+                    }
+                    next.add(existing);
+                }
+            }
+            next.add(hold);
+            serviceByToken.put(hold.token(), serviceId);
+            placed[0] = true;
+            return List.copyOf(next);
+        });
+        return placed[0];
+    }
+
+    public boolean release(String token, Long userId) {
+        Long serviceId = serviceByToken.get(token);
+        if (serviceId == null) {
+            return false;
+        }
+        boolean[] released = new boolean[1];
+        holdsByService.computeIfPresent(serviceId, (id, holds) -> {
+            List<Hold> next = new ArrayList<>(holds.size());
+            for (Hold hold : holds) {
+                if (hold.token().equals(token) && hold.userId().equals(userId)) {
+                    serviceByToken.remove(token);
+                    released[0] = true;
+                } else {
+                    next.add(hold);
+                }
+            }
+            return next.isEmpty() ? null : List.copyOf(next);
+        });
+        return released[0];
+    }
+
+    public void releaseOverlapping(Long serviceId, Long userId, LocalDateTime start, LocalDateTime end) {
+        holdsByService.computeIfPresent(serviceId, (id, holds) -> {
+            List<Hold> next = new ArrayList<>(holds.size());
+            for (Hold hold : holds) {
+                if (hold.userId().equals(userId) && hold.overlaps(start, end)) {
+                    serviceByToken.remove(hold.token());
+                } else {
+                    next.add(hold);
+                }
+            }
+            return next.isEmpty() ? null : List.copyOf(next);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${booking.holds.sweep-interval-ms:60000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long serviceId : holdsByService.keySet()) {
+            holdsByService.computeIfPresent(serviceId, (id, holds) -> {
+                List<Hold> next = new ArrayList<>(holds.size());
+                for (Hold hold : holds) {
+                    if (hold.isActive(now)) {
+                        next.add(hold);
+                    } else {
+                        serviceByToken.remove(hold.token());
+                    }
+                }
+                return next.isEmpty() ? null : next.size() == holds.size() ? holds : List.copyOf(next);
+            });
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.cozystay.metrics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Wraps the application DataSource so every statement passes through SqlStatisticsListener
+@Component
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+    private final long slowQueryMs;
+
+    public DataSourceProxyPostProcessor(@Value("${sql.slow-query-ms:200}") long slowQueryMs) {
+        this.slowQueryMs = slowQueryMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                && "dataSource".equals(beanName)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name("cozystay")
+                    .listener(new SqlStatisticsListener(slowQueryMs))
+                    .build();
+        }
+        return bean;
+    }
+}
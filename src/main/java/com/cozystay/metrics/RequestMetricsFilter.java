@@ -0,0 +1,79 @@
+package com.cozystay.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger budgetLogger = LoggerFactory.getLogger("com.cozystay.sql.budget");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sql.budget.max-statements:20}")
+    private long maxStatements;
+
+    @Value("${sql.budget.max-request-ms:500}")
+    private long maxRequestMs;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long startNanos = System.nanoTime();
+        RequestStatistics statistics = RequestStatistics.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestStatistics.clear();
+            long requestMs = (System.nanoTime() - startNanos) / 1_000_000;
+            String uri = uriTag(request);
+
+            DistributionSummary.builder("cozystay.hibernate.entity.loads")
+                    .description("Entities loaded by Hibernate per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(statistics.getEntityLoads());
+
+            DistributionSummary.builder("cozystay.sql.statements")
+                    .description("JDBC statements executed per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(statistics.getStatements());
+
+            // Only requests over budget are logged, so the log stays quiet in steady state
+            if (statistics.getStatements() > maxStatements || requestMs > maxRequestMs) {
+                budgetLogger.warn("sql_budget_exceeded method={} uri={} handler={} status={} statements={} " +
+                                "sql_ms={} request_ms={} entity_loads={}",
+                        request.getMethod(), uri, statistics.getHandler(), response.getStatus(),
+                        statistics.getStatements(), statistics.getSqlTimeMs(), requestMs, statistics.getEntityLoads());
+            }
+        }
+    }
+
+    // The matched route pattern keeps tag cardinality bounded; unmatched requests share one tag
+    private String uriTag(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
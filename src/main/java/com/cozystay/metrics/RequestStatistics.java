@@ -0,0 +1,60 @@
+package com.cozystay.metrics;
+
+// Per-request counters filled in by data access hooks on the request thread and
+// published by RequestMetricsFilter once the request completes
+public final class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private long entityLoads;
+    private long statements;
+    private long sqlTimeMs;
+    private String handler = "none";
+
+    private RequestStatistics() {
+    }
+
+    static RequestStatistics start() {
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    // Null outside of a request, e.g. on scheduler or async threads
+    public static RequestStatistics current() {
+        return CURRENT.get();
+    }
+
+    public void incrementEntityLoads() {
+        entityLoads++;
+    }
+
+    public void recordStatement(long elapsedMs) {
+        statements++;
+        sqlTimeMs += elapsedMs;
+    }
+
+    public long getEntityLoads() {
+        return entityLoads;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getSqlTimeMs() {
+        return sqlTimeMs;
+    }
+
+    public String getHandler() {
+        return handler;
+    }
+
+    void setHandler(String handler) {
+        this.handler = handler;
+    }
+}
@@ -0,0 +1,21 @@
+package com.cozystay.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Tags the request's statistics with the controller method once the handler is resolved
+@Component
+public class RequestStatisticsInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null && handler instanceof HandlerMethod handlerMethod) {
+            statistics.setHandler(handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,52 @@
+package com.cozystay.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Counts every statement against the current request and logs the ones slower than the threshold.
+// Bind values are never logged.
+public class SqlStatisticsListener implements QueryExecutionListener {
+
+    private static final Logger slowQueryLogger = LoggerFactory.getLogger("com.cozystay.sql.slow");
+
+    private static final int MAX_SQL_LENGTH = 1000;
+
+    private final long slowQueryMs;
+
+    public SqlStatisticsListener(long slowQueryMs) {
+        this.slowQueryMs = slowQueryMs;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMs = execInfo.getElapsedTime();
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.recordStatement(elapsedMs);
+        }
+
+        if (elapsedMs >= slowQueryMs) {
+            String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+            if (sql.length() > MAX_SQL_LENGTH) {
+                sql = sql.substring(0, MAX_SQL_LENGTH) + "...";
+            }
+            slowQueryLogger.warn("slow_query elapsed_ms={} handler={} batch={} batch_size={} success={} sql=\"{}\"",
+                    elapsedMs,
+                    statistics != null ? statistics.getHandler() : "none",
+                    execInfo.isBatch(),
+                    execInfo.getBatchSize(),
+                    execInfo.isSuccess(),
+                    sql);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.cozystay.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Entity
+@Table(name = "availability_overrides",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"rule_id", "occurrence_date"}))
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityOverride {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @JoinColumn(name = "rule_id", nullable = false)
+    private AvailabilityRule rule;
+
+    // Start date of the occurrence this override replaces
+    @NotNull
+    @Column(name = "occurrence_date")
+    private LocalDate occurrenceDate;
+
+    // false removes the occurrence (e.g. a holiday)
+    @Column(nullable = false)
+    private boolean isAvailable;
+
+    // Optional replacement times for this occurrence only
+    private LocalTime startTime;
+
+    private LocalTime endTime;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AvailabilityOverride)) {
+            return false;
+        }
+        AvailabilityOverride other = (AvailabilityOverride) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return AvailabilityOverride.class.hashCode();
+    }
+}
@@ -0,0 +1,93 @@
+package com.cozystay.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Entity
+@Table(name = "availability_rules")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @JoinColumn(name = "service_id", nullable = false)
+    private Service service;
+
+    // Weekdays on which an occurrence starts, e.g. FRIDAY, SATURDAY, SUNDAY
+    @ElementCollection(fetch = FetchType.EAGER)
+    @Enumerated(EnumType.STRING)
+    @CollectionTable(name = "availability_rule_days", joinColumns = @JoinColumn(name = "rule_id"))
+    @Column(name = "day_of_week")
+    private Set<DayOfWeek> daysOfWeek = new HashSet<>();
+
+    @NotNull
+    private LocalTime startTime;
+
+    // An end time at or before the start time ends on the following day (15:00 - 11:00)
+    @NotNull
+    private LocalTime endTime;
+
+    @NotNull
+    private LocalDate validFrom;
+
+    private LocalDate validUntil;
+
+    @Column(nullable = false)
+    private boolean isAvailable;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    @OneToMany(mappedBy = "rule", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
+    private List<AvailabilityOverride> overrides = new ArrayList<>();
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AvailabilityRule)) {
+            return false;
+        }
+        AvailabilityRule other = (AvailabilityRule) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return AvailabilityRule.class.hashCode();
+    }
+}
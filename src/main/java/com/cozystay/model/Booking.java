@@ -5,17 +5,35 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
-@Data
+@Table(name = "bookings", indexes = {
+        // Range scans by status and time: expiry, auto-completion and the deadline scheduler
+        @Index(name = "idx_bookings_status_start", columnList = "status, start_date_time"),
+        @Index(name = "idx_bookings_status_end", columnList = "status, end_date_time"),
+        @Index(name = "idx_bookings_status_created", columnList = "status, created_at")
+})
+// Fetch plan for list and detail views: guest, service and the service's provider in one query
+@NamedEntityGraph(name = "Booking.summary",
+        attributeNodes = {
+                @NamedAttributeNode("user"),
+                @NamedAttributeNode(value = "service", subgraph = "service")
+        },
+        subgraphs = @NamedSubgraph(name = "service", attributeNodes = @NamedAttributeNode("user")))
+@DynamicUpdate
+@Getter
+@Setter
+@ToString
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,11 +43,18 @@ public class Booking {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    // Status changes from the guest and the provider must not silently overwrite each other
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     @JoinColumn(name = "service_id", nullable = false)
     private Service service;
 
@@ -59,9 +84,11 @@ public class Booking {
     private LocalDateTime cancelledAt;
 
     @OneToOne(mappedBy = "booking", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
     private Payment payment;
 
     @OneToOne(mappedBy = "booking", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
     private Review review;
 
     @CreationTimestamp
@@ -69,4 +96,21 @@ public class Booking {
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Booking)) {
+            return false;
+        }
+        Booking other = (Booking) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Booking.class.hashCode();
+    }
 }
\ No newline at end of file
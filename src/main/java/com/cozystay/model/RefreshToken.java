@@ -0,0 +1,50 @@
+package com.cozystay.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// One row per issued refresh token. Every rotation of a login's token stays in the same
+// family, so presenting an already rotated token revokes the whole family.
+@Entity
+@Table(name = "refresh_tokens",
+        indexes = @Index(name = "idx_refresh_tokens_family", columnList = "family_id"))
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // JWT id (jti) of the token handed to the client
+    @Column(name = "token_id", nullable = false, unique = true, length = 36)
+    private String tokenId;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime rotatedAt;
+
+    private LocalDateTime revokedAt;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
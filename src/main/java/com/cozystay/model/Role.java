@@ -1,7 +1,23 @@
 package com.cozystay.model;
 
+import java.util.Collection;
+
 public enum Role {
     USER,
     PROVIDER,
-    ADMIN
-}
\ No newline at end of file
+    ADMIN;
+
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    public static int maskOf(Collection<Role> roles) {
+        int mask = 0;
+        if (roles != null) {
+            for (Role role : roles) {
+                mask |= role.mask();
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,37 @@
+package com.cozystay.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+// Progress of an in-memory scheduler plus the lease that decides which node runs it.
+// Only written through SchedulerCursorRepository's conditional updates.
+@Entity
+@Table(name = "scheduler_cursors")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerCursor {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    // Every event due before this has been delivered
+    @Column(nullable = false)
+    private LocalDateTime firedBefore;
+
+    @Column(length = 64)
+    private String leaseOwner;
+
+    private LocalDateTime leaseUntil;
+}
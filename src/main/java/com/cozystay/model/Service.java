@@ -7,9 +7,12 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -21,7 +24,12 @@ import java.util.Set;
 
 @Entity
 @Table(name = "services")
-@Data
+// Category and location are left out on purpose: they resolve from the second-level cache
+@NamedEntityGraph(name = "Service.summary", attributeNodes = @NamedAttributeNode("user"))
+@DynamicUpdate
+@Getter
+@Setter
+@ToString
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,6 +39,11 @@ public class Service {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Owner edits are versioned; the rating summary is written by a targeted UPDATE that skips it
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @NotBlank
     @Size(min = 3, max = 100)
     private String title;
@@ -91,30 +104,62 @@ public class Service {
 
     private Integer reviewCount;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     @JoinColumn(name = "location_id", nullable = false)
     private Location location;
 
     @OneToMany(mappedBy = "service", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
     private Set<Booking> bookings = new HashSet<>();
 
     @OneToMany(mappedBy = "service", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
     private Set<Review> reviews = new HashSet<>();
 
     @OneToMany(mappedBy = "service", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
     private Set<Availability> availabilities = new HashSet<>();
 
+    @OneToMany(mappedBy = "service", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
+    private Set<AvailabilityRule> availabilityRules = new HashSet<>();
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    // Per-person services with a capacity sell seats in a slot (see SlotInventory) instead of the whole slot
+    public boolean isSoldBySeat() {
+        return pricingUnit == PricingUnit.PER_PERSON && capacity != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Service)) {
+            return false;
+        }
+        Service other = (Service) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Service.class.hashCode();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.cozystay.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Daily per-service rollup behind the provider analytics endpoints. Rows are only
+// written through ServiceDailyStatsRepository.applyDelta, never loaded and saved.
+@Entity
+@Table(name = "service_daily_stats",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"service_id", "stat_date"}),
+        indexes = @Index(name = "idx_service_daily_stats_provider_date", columnList = "provider_id, stat_date"))
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "service_id", nullable = false)
+    private Long serviceId;
+
+    // Denormalized from services.user_id so provider queries never touch the services table
+    @Column(name = "provider_id", nullable = false)
+    private Long providerId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(nullable = false)
+    private long bookings;
+
+    @Column(nullable = false)
+    private long nights;
+
+    @Column(nullable = false)
+    private long cancellations;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(nullable = false)
+    private long ratingSum;
+
+    @Column(nullable = false)
+    private long ratingCount;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ServiceDailyStats)) {
+            return false;
+        }
+        ServiceDailyStats other = (ServiceDailyStats) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return ServiceDailyStats.class.hashCode();
+    }
+}
@@ -0,0 +1,44 @@
+package com.cozystay.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+// Seats left in one slot of a seat-sold service (Service.isSoldBySeat). Created on the first
+// booking for the slot and only changed by SlotInventoryRepository's guarded updates.
+@Entity
+@Table(name = "slot_inventory", uniqueConstraints = @UniqueConstraint(name = "uk_slot_inventory_slot",
+        columnNames = {"service_id", "start_date_time", "end_date_time"}))
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotInventory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "service_id", nullable = false)
+    private Long serviceId;
+
+    @Column(name = "start_date_time", nullable = false)
+    private LocalDateTime startDateTime;
+
+    @Column(name = "end_date_time", nullable = false)
+    private LocalDateTime endDateTime;
+
+    @Column(nullable = false)
+    private int capacity;
+
+    @Column(nullable = false)
+    private int remaining;
+}
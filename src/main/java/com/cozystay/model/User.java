@@ -6,8 +6,10 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
@@ -21,24 +23,33 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "users")
-@Data
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"),
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
+})
+@Getter
+@Setter
+@ToString
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class User implements UserDetails {
 
+    // Registration relies on these instead of checking first (see AuthService.registerUser)
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotBlank
     @Size(min = 3, max = 50)
-    @Column(unique = true)
     private String username;
 
     @NotBlank
     @Size(max = 120)
+    @ToString.Exclude
     private String password;
 
     @NotBlank
@@ -52,7 +63,6 @@ public class User implements UserDetails {
     @NotBlank
     @Size(max = 50)
     @Email
-    @Column(unique = true)
     private String email;
 
     @Size(max = 15)
@@ -80,6 +90,11 @@ public class User implements UserDetails {
     @Column(name = "role")
     private Set<Role> roles = new HashSet<>();
 
+    // Role.maskOf(roles), computed once per loaded principal; 0 means not computed yet
+    @Transient
+    @ToString.Exclude
+    private int roleMask;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -87,14 +102,29 @@ public class User implements UserDetails {
     private LocalDateTime updatedAt;
 
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
     private Set<Service> services = new HashSet<>();
 
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
     private Set<Booking> bookings = new HashSet<>();
 
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
     private Set<Review> reviews = new HashSet<>();
 
+    public void setRoles(Set<Role> roles) {
+        this.roles = roles;
+        this.roleMask = 0;
+    }
+
+    public int getRoleMask() {
+        if (roleMask == 0) {
+            roleMask = Role.maskOf(roles);
+        }
+        return roleMask;
+    }
+
     // UserDetails implementation
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -122,4 +152,21 @@ public class User implements UserDetails {
     public boolean isEnabled() {
         return isActive;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof User)) {
+            return false;
+        }
+        User other = (User) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return User.class.hashCode();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.cozystay.paging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Turns a slice (fetched with one extra row, no COUNT) into the response for the requested
+ * {@link PagingMode}. The count query only runs for PAGE, or for ESTIMATE when the cached
+ * total for that listing has expired.
+ */
+@Component
+public class PageTotals {
+
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    @Value("${paging.estimate.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${paging.estimate.max-entries:10000}")
+    private int maxEntries;
+
+    public <T> Slice<T> complete(Slice<T> slice, PagingMode mode, String countKey, LongSupplier count) {
+        if (mode == PagingMode.SLICE) {
+            return slice;
+        }
+
+        long offset = slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0;
+
+        // Last page reached: the total is known without counting
+        if (!slice.hasNext() && (slice.hasContent() || offset == 0)) {
+            return new PageImpl<>(slice.getContent(), slice.getPageable(), offset + slice.getNumberOfElements());
+        }
+
+        long total = mode == PagingMode.PAGE ? count.getAsLong() : estimate(countKey, count);
+
+        // A stale estimate must never claim fewer rows than we can already see
+        total = Math.max(total, offset + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0));
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+
+    private long estimate(String countKey, LongSupplier count) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(countKey);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.value();
+        }
+
+        long value = count.getAsLong();
+        if (counts.size() >= maxEntries) {
+            counts.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (counts.size() >= maxEntries) {
+                counts.clear();
+            }
+        }
+        counts.put(countKey, new CachedCount(value, now + ttlMs));
+        return value;
+    }
+
+    private record CachedCount(long value, long expiresAt) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.cozystay.paging;
+
+import com.cozystay.exception.BadRequestException;
+
+// How a list endpoint reports its size. PAGE keeps the exact COUNT(*) per request, SLICE skips
+// it and only says whether another page exists, ESTIMATE answers from a short-lived cached count.
+public enum PagingMode {
+    PAGE,
+    SLICE,
+    ESTIMATE;
+
+    public static PagingMode from(String value) {
+        for (PagingMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new BadRequestException("Unsupported paging mode: " + value);
+    }
+}
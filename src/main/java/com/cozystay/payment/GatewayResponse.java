@@ -0,0 +1,15 @@
+package com.cozystay.payment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GatewayResponse {
+
+    private boolean success;
+    private String reference;
+    private String message;
+}
@@ -0,0 +1,24 @@
+package com.cozystay.payment;
+
+import com.cozystay.model.PaymentMethod;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-process gateway for development and tests; approves every charge
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "local", matchIfMissing = true)
+public class LocalPaymentGateway implements PaymentGateway {
+
+    private final Map<String, GatewayResponse> charges = new ConcurrentHashMap<>();
+
+    @Override
+    public GatewayResponse charge(String idempotencyKey, BigDecimal amount, PaymentMethod method) {
+        return charges.computeIfAbsent(idempotencyKey, key ->
+                new GatewayResponse(true, "local-" + UUID.randomUUID(), "Approved"));
+    }
+}
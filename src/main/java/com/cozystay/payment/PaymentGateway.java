@@ -0,0 +1,12 @@
+package com.cozystay.payment;
+
+import com.cozystay.model.PaymentMethod;
+
+import java.math.BigDecimal;
+
+public interface PaymentGateway {
+
+    // Implementations must treat the idempotency key as the charge identity: calling
+    // charge again with the same key returns the original result instead of charging twice
+    GatewayResponse charge(String idempotencyKey, BigDecimal amount, PaymentMethod method);
+}
@@ -0,0 +1,56 @@
+package com.cozystay.ratelimit;
+
+/**
+ * AIMD concurrency limit for one route: the limit creeps up while responses stay under the
+ * target latency and is cut by 10% (at most once per target interval) when they don't.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseAt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyMs) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyMs * 1_000_000L;
+        this.lastDecreaseAt = System.nanoTime() - targetLatencyNanos - 1;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void release(long latencyNanos) {
+        boolean saturated = inFlight >= (int) limit;
+        inFlight--;
+
+        long now = System.nanoTime();
+        if (latencyNanos > targetLatencyNanos) {
+            if (now - lastDecreaseAt > targetLatencyNanos) {
+                limit = Math.max(minLimit, limit * 0.9);
+                lastDecreaseAt = now;
+            }
+        } else if (saturated) {
+            // Only grow when the current limit was actually reached
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,62 @@
+package com.cozystay.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@ConditionalOnProperty(name = "ratelimit.backend", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public long tryConsume(String key, int capacity, double refillPerSecond) {
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, refillPerSecond));
+        return bucket.tryConsume();
+    }
+
+    // A bucket that has refilled completely behaves exactly like a new one, so it can be dropped
+    @Scheduled(fixedDelayString = "${ratelimit.cleanup-interval-ms:60000}")
+    public void evictFullBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private static class Bucket {
+
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1_000_000_000d;
+            this.tokens = capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        synchronized long tryConsume() {
+            refill(System.nanoTime());
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / refillPerNano / 1_000_000d);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+            refilledAt = now;
+        }
+    }
+}
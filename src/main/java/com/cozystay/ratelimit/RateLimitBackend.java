@@ -0,0 +1,15 @@
+package com.cozystay.ratelimit;
+
+/**
+ * Token-bucket store. The in-process implementation limits per instance; a shared store
+ * (Redis, the database) can replace it to enforce limits across instances.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Takes one token from the bucket for {@code key}, creating it full if needed.
+     *
+     * @return 0 when the request is admitted, otherwise milliseconds until a token is available
+     */
+    long tryConsume(String key, int capacity, double refillPerSecond);
+}
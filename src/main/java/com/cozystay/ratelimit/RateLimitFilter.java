@@ -0,0 +1,149 @@
+package com.cozystay.ratelimit;
+
+import com.cozystay.exception.ErrorResponse;
+import com.cozystay.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Runs right after JWT authentication so limits can be keyed by user id
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private RateLimitBackend backend;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!properties.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Map.Entry<String, RateLimitProperties.Route> match = matchRoute(request.getMethod(), path);
+        if (match == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String routeName = match.getKey();
+        RateLimitProperties.Route route = match.getValue();
+        long waitMs = backend.tryConsume(routeName + ":" + clientKey(request, route),
+                route.getCapacity(), route.getRefillPerMinute() / 60d);
+        if (waitMs > 0) {
+            reject(request, response, routeName, "rate", Math.max(1, (waitMs + 999) / 1000),
+                    "Too many requests, please retry later");
+            return;
+        }
+
+        if (!route.isAdaptiveConcurrency()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(routeName, this::newLimiter);
+        if (!limiter.tryAcquire()) {
+            reject(request, response, routeName, "concurrency", 1, "Server is busy, please retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    // Only one bucket is charged per request, so a token is never taken by one route and then
+    // lost to a rejection from another
+    private Map.Entry<String, RateLimitProperties.Route> matchRoute(String method, String path) {
+        Comparator<String> specificity = pathMatcher.getPatternComparator(path);
+        Map.Entry<String, RateLimitProperties.Route> best = null;
+        for (Map.Entry<String, RateLimitProperties.Route> entry : properties.getRoutes().entrySet()) {
+            if (matches(entry.getValue(), method, path)
+                    && (best == null || specificity.compare(entry.getValue().getPath(), best.getValue().getPath()) < 0)) {
+                best = entry;
+            }
+        }
+        return best;
+    }
+
+    private boolean matches(RateLimitProperties.Route route, String method, String path) {
+        return (route.getMethod() == null || route.getMethod().equalsIgnoreCase(method))
+                && route.getPath() != null && pathMatcher.match(route.getPath(), path);
+    }
+
+    private String clientKey(HttpServletRequest request, RateLimitProperties.Route route) {
+        if (route.getKey() == RateLimitProperties.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof User user) {
+                return "user:" + user.getId();
+            }
+        }
+        // Behind a proxy this is only the client address when server.forward-headers-strategy is set
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private AdaptiveConcurrencyLimiter newLimiter(String route) {
+        RateLimitProperties.Concurrency concurrency = properties.getConcurrency();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(concurrency.getInitialLimit(),
+                concurrency.getMinLimit(), concurrency.getMaxLimit(), concurrency.getTargetLatencyMs());
+        Gauge.builder("cozystay.ratelimit.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("route", route)
+                .register(meterRegistry);
+        Gauge.builder("cozystay.ratelimit.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted under the adaptive limit")
+                .tag("route", route)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, String route, String reason,
+                        long retryAfterSeconds, String message) throws IOException {
+        meterRegistry.counter("cozystay.ratelimit.rejected", "route", route, "reason", reason).increment();
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                message,
+                "uri=" + request.getRequestURI(),
+                LocalDateTime.now()
+        );
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -0,0 +1,46 @@
+package com.cozystay.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // A request is charged to the most specific route whose method and path match it (declaration
+    // order breaks ties), so /services/search is limited as search only, not also as /services/**
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    private Concurrency concurrency = new Concurrency();
+
+    public enum KeyType {
+        // Authenticated user id, falling back to the client address for anonymous calls
+        USER,
+        IP
+    }
+
+    @Data
+    public static class Route {
+        private String method;
+        private String path;
+        private int capacity;
+        private int refillPerMinute;
+        private KeyType key = KeyType.USER;
+        private boolean adaptiveConcurrency;
+    }
+
+    @Data
+    public static class Concurrency {
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        private long targetLatencyMs = 250;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cozystay.repository;
+
+import com.cozystay.model.AvailabilityOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AvailabilityOverrideRepository extends JpaRepository<AvailabilityOverride, Long> {
+
+    List<AvailabilityOverride> findByRuleIdInAndOccurrenceDateBetween(
+            Collection<Long> ruleIds, LocalDate startDate, LocalDate endDate);
+
+    Optional<AvailabilityOverride> findByRuleIdAndOccurrenceDate(Long ruleId, LocalDate occurrenceDate);
+}
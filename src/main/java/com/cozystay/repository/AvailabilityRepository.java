@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -28,4 +29,13 @@ public interface AvailabilityRepository extends JpaRepository<Availability, Long
             @Param("serviceId") Long serviceId,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    // Cart checkout: the available slots of every service in the cart across the cart's whole window
+    @Query("SELECT a FROM Availability a WHERE a.service.id IN :serviceIds AND " +
+            "a.isAvailable = true AND " +
+            "a.startDateTime <= :endDate AND a.endDateTime >= :startDate")
+    List<Availability> findAvailableSlotsForServicesBetweenDates(
+            @Param("serviceIds") Collection<Long> serviceIds,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+}
@@ -0,0 +1,23 @@
+package com.cozystay.repository;
+
+import com.cozystay.model.AvailabilityRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AvailabilityRuleRepository extends JpaRepository<AvailabilityRule, Long> {
+
+    List<AvailabilityRule> findByServiceId(Long serviceId);
+
+    @Query("SELECT r FROM AvailabilityRule r WHERE r.service.id = :serviceId AND " +
+            "r.validFrom <= :endDate AND (r.validUntil IS NULL OR r.validUntil >= :startDate)")
+    List<AvailabilityRule> findRulesForServiceBetweenDates(
+            @Param("serviceId") Long serviceId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,50 @@
+package com.cozystay.repository;
+
+import com.cozystay.model.BookingHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingHoldRepository extends JpaRepository<BookingHold, Long> {
+
+    @Query("SELECT COUNT(h) > 0 FROM BookingHold h WHERE h.serviceId = :serviceId AND h.userId <> :userId " +
+            "AND h.expiresAt > :now AND h.startDateTime < :endDate AND h.endDateTime > :startDate")
+    boolean existsHeldByOther(@Param("serviceId") Long serviceId,
+                              @Param("startDate") LocalDateTime startDate,
+                              @Param("endDate") LocalDateTime endDate,
+                              @Param("userId") Long userId,
+                              @Param("now") LocalDateTime now);
+
+    @Query("SELECT h FROM BookingHold h WHERE h.serviceId IN :serviceIds AND h.userId <> :userId " +
+            "AND h.expiresAt > :now")
+    List<BookingHold> findActiveHeldByOthers(@Param("serviceIds") Collection<Long> serviceIds,
+                                             @Param("userId") Long userId,
+                                             @Param("now") LocalDateTime now);
+
+    @Query("SELECT COUNT(h) FROM BookingHold h WHERE h.userId = :userId AND h.expiresAt > :now")
+    long countActiveForUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM BookingHold h WHERE h.holdToken = :holdToken AND h.userId = :userId")
+    int deleteByHoldTokenAndUserId(@Param("holdToken") String holdToken, @Param("userId") Long userId);
+
+    // The guest's own holds on the dates they just booked
+    @Modifying
+    @Query("DELETE FROM BookingHold h WHERE h.serviceId = :serviceId AND h.userId = :userId " +
+            "AND h.startDateTime < :endDate AND h.endDateTime > :startDate")
+    int deleteOverlappingForUser(@Param("serviceId") Long serviceId,
+                                 @Param("userId") Long userId,
+                                 @Param("startDate") LocalDateTime startDate,
+                                 @Param("endDate") LocalDateTime endDate);
+
+    @Modifying
+    @Query("DELETE FROM BookingHold h WHERE h.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -2,43 +2,163 @@ package com.cozystay.repository;
 
 import com.cozystay.model.Booking;
 import com.cozystay.model.BookingStatus;
+import com.cozystay.repository.projection.BookingListView;
+import com.cozystay.repository.projection.BookingStatusView;
+import com.cozystay.repository.projection.DeadlineCandidateView;
+import com.cozystay.repository.projection.IdRangeView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    Page<Booking> findByUserId(Long userId, Pageable pageable);
+    // Columns for the booking list DTO only; no TEXT columns and no collections
+    String BOOKING_LIST_SELECT = "SELECT b.id AS id, b.startDateTime AS startDateTime, b.endDateTime AS endDateTime, " +
+            "b.totalPrice AS totalPrice, b.guestCount AS guestCount, b.status AS status, b.createdAt AS createdAt, " +
+            "u.id AS userId, u.username AS userUsername, u.firstName AS userFirstName, " +
+            "u.lastName AS userLastName, u.profileImage AS userProfileImage, " +
+            "u.isProvider AS userIsProvider, u.isVerified AS userVerified, u.isActive AS userActive, " +
+            "s.id AS serviceId, s.title AS serviceTitle, s.type AS serviceType, s.price AS servicePrice, " +
+            "s.pricingUnit AS servicePricingUnit, s.thumbnailUrl AS serviceThumbnailUrl, s.address AS serviceAddress, " +
+            "s.isVerified AS serviceVerified, " +
+            "p.id AS providerId, p.firstName AS providerFirstName, p.lastName AS providerLastName, " +
+            "p.isProvider AS providerIsProvider, p.isVerified AS providerVerified, p.isActive AS providerActive " +
+            "FROM Booking b JOIN b.user u JOIN b.service s JOIN s.user p ";
 
-    @Query("SELECT b FROM Booking b WHERE b.service.user.id = :providerId")
-    Page<Booking> findByProviderId(@Param("providerId") Long providerId, Pageable pageable);
+    @Override
+    @EntityGraph("Booking.summary")
+    Optional<Booking> findById(Long id);
 
+    @EntityGraph("Booking.summary")
     Page<Booking> findByServiceId(Long serviceId, Pageable pageable);
 
-    Page<Booking> findByUserIdAndStatus(Long userId, BookingStatus status, Pageable pageable);
+    @Query(BOOKING_LIST_SELECT + "WHERE b.user.id = :userId")
+    Slice<BookingListView> findByUserId(@Param("userId") Long userId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b WHERE b.service.user.id = :providerId AND b.status = :status")
-    Page<Booking> findByProviderIdAndStatus(@Param("providerId") Long providerId,
-                                            @Param("status") BookingStatus status,
-                                            Pageable pageable);
+    @Query(BOOKING_LIST_SELECT + "WHERE p.id = :providerId")
+    Slice<BookingListView> findByProviderId(@Param("providerId") Long providerId, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT + "WHERE b.user.id = :userId AND b.status = :status")
+    Slice<BookingListView> findByUserIdAndStatus(@Param("userId") Long userId,
+                                                 @Param("status") BookingStatus status,
+                                                 Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT + "WHERE p.id = :providerId AND b.status = :status")
+    Slice<BookingListView> findByProviderIdAndStatus(@Param("providerId") Long providerId,
+                                                     @Param("status") BookingStatus status,
+                                                     Pageable pageable);
+
+    long countByUserId(Long userId);
+
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.service.user.id = :providerId")
+    long countByProviderId(@Param("providerId") Long providerId);
+
+    long countByUserIdAndStatus(Long userId, BookingStatus status);
+
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.service.user.id = :providerId AND b.status = :status")
+    long countByProviderIdAndStatus(@Param("providerId") Long providerId, @Param("status") BookingStatus status);
 
     @Query("SELECT b FROM Booking b WHERE b.startDateTime BETWEEN :startDate AND :endDate")
     List<Booking> findBookingsBetweenDates(@Param("startDate") LocalDateTime startDate,
                                            @Param("endDate") LocalDateTime endDate);
 
     @Query("SELECT b FROM Booking b WHERE b.service.id = :serviceId AND " +
-            "b.status NOT IN(CANCELLED_BY_USER, CANCELLED_BY_PROVIDER) OR " +
+            "b.status NOT IN(CANCELLED_BY_USER, CANCELLED_BY_PROVIDER) AND " +
             "((b.startDateTime BETWEEN :startDate AND :endDate) OR " +
             "(b.endDateTime BETWEEN :startDate AND :endDate) OR " +
             "(b.startDateTime <= :startDate AND b.endDateTime >= :endDate))")
     List<Booking> findOverlappingBookings(@Param("serviceId") Long serviceId,
                                           @Param("startDate") LocalDateTime startDate,
                                           @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    // Cart checkout: the same overlap test for several services at once, over the cart's whole window
+    @Query("SELECT b FROM Booking b WHERE b.service.id IN :serviceIds AND " +
+            "b.status NOT IN(CANCELLED_BY_USER, CANCELLED_BY_PROVIDER) AND " +
+            "b.startDateTime <= :endDate AND b.endDateTime >= :startDate")
+    List<Booking> findActiveBookingsForServicesBetweenDates(@Param("serviceIds") Collection<Long> serviceIds,
+                                                            @Param("startDate") LocalDateTime startDate,
+                                                            @Param("endDate") LocalDateTime endDate);
+
+    // Cancels up to :limit stale PENDING bookings (created before :cutoff, or already started) and
+    // releases their nights in the analytics rollup, each from the day it falls on, in one statement. Rows another node has locked
+    // are skipped, so several nodes can run the expiry at once. Returns the ids expired; their seats
+    // go back through SlotInventoryRepository.releaseForBookings.
+    @Query(value = "WITH expired AS (" +
+            "UPDATE bookings SET status = 'CANCELLED_BY_PROVIDER', cancellation_reason = :reason, " +
+            "cancelled_at = :now, updated_at = :now, version = version + 1 " +
+            "WHERE id IN (SELECT id FROM bookings WHERE status = 'PENDING' " +
+            "AND (created_at < :cutoff OR start_date_time < :now) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, service_id, start_date_time, end_date_time, guest_count), " +
+            "stats AS (" +
+            "INSERT INTO service_daily_stats " +
+            "(service_id, provider_id, stat_date, bookings, nights, cancellations, revenue, rating_sum, rating_count) " +
+            "SELECT service_id, provider_id, stat_date, 0, SUM(nights), SUM(cancellations), 0, 0, 0 " +
+            "FROM (" +
+            "SELECT e.service_id, s.user_id AS provider_id, CAST(e.start_date_time AS DATE) AS stat_date, " +
+            "0 AS nights, 1 AS cancellations " +
+            "FROM expired e JOIN services s ON s.id = e.service_id " +
+            "UNION ALL " +
+            "SELECT e.service_id, s.user_id, CAST(n.night AS DATE), -1, 0 " +
+            "FROM expired e JOIN services s ON s.id = e.service_id " +
+            "CROSS JOIN LATERAL generate_series(CAST(CAST(e.start_date_time AS DATE) AS TIMESTAMP), " +
+            "CAST(CAST(e.end_date_time AS DATE) AS TIMESTAMP) - INTERVAL '1 day', INTERVAL '1 day') AS n(night)" +
+            ") d " +
+            "GROUP BY service_id, provider_id, stat_date " +
+            "ON CONFLICT (service_id, stat_date) DO UPDATE SET " +
+            "nights = service_daily_stats.nights + EXCLUDED.nights, " +
+            "cancellations = service_daily_stats.cancellations + EXCLUDED.cancellations) " +
+            "SELECT id FROM expired",
+            nativeQuery = true)
+    List<Long> expireStalePending(@Param("cutoff") LocalDateTime cutoff,
+                            @Param("now") LocalDateTime now,
+                            @Param("reason") String reason,
+                            @Param("limit") int limit);
+
+    @Query("SELECT MIN(b.id) AS minId, MAX(b.id) AS maxId FROM Booking b " +
+            "WHERE b.status = CONFIRMED AND b.endDateTime < :now")
+    IdRangeView findEndedConfirmedIdRange(@Param("now") LocalDateTime now);
+
+    // Guarded by status, so re-running a range (or two nodes running it) completes nothing twice
+    @Modifying
+    @Query(value = "UPDATE bookings SET status = 'COMPLETED', updated_at = :now, version = version + 1 " +
+            "WHERE id BETWEEN :fromId AND :toId AND status = 'CONFIRMED' AND end_date_time < :now",
+            nativeQuery = true)
+    int completeEndedInRange(@Param("fromId") long fromId,
+                             @Param("toId") long toId,
+                             @Param("now") LocalDateTime now);
+
+    // Deadline windows for BookingDeadlineScheduler; changedSince narrows a re-scan to recent writes
+    @Query("SELECT b.id AS id, b.startDateTime AS anchor FROM Booking b WHERE b.status = CONFIRMED " +
+            "AND b.startDateTime >= :from AND b.startDateTime < :to AND b.updatedAt >= :changedSince")
+    List<DeadlineCandidateView> findConfirmedStartingBetween(@Param("from") LocalDateTime from,
+                                                             @Param("to") LocalDateTime to,
+                                                             @Param("changedSince") LocalDateTime changedSince);
+
+    @Query("SELECT b.id AS id, b.createdAt AS anchor FROM Booking b WHERE b.status = PENDING " +
+            "AND b.createdAt >= :from AND b.createdAt < :to AND b.updatedAt >= :changedSince")
+    List<DeadlineCandidateView> findPendingCreatedBetween(@Param("from") LocalDateTime from,
+                                                          @Param("to") LocalDateTime to,
+                                                          @Param("changedSince") LocalDateTime changedSince);
+
+    @Query("SELECT b.id AS id, b.endDateTime AS anchor FROM Booking b WHERE b.status IN (CONFIRMED, COMPLETED) " +
+            "AND b.endDateTime >= :from AND b.endDateTime < :to AND b.updatedAt >= :changedSince")
+    List<DeadlineCandidateView> findStaysEndingBetween(@Param("from") LocalDateTime from,
+                                                       @Param("to") LocalDateTime to,
+                                                       @Param("changedSince") LocalDateTime changedSince);
+
+    @Query("SELECT b.id AS id, b.status AS status FROM Booking b WHERE b.id IN :ids")
+    List<BookingStatusView> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -2,7 +2,9 @@ package com.cozystay.repository;
 
 import com.cozystay.model.Payment;
 import com.cozystay.model.PaymentStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,10 +17,21 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
     Optional<Payment> findByBookingId(Long bookingId);
 
+    // Locked so two concurrent retries of a failed payment can't both reopen it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.booking.id = :bookingId")
+    Optional<Payment> lockByBookingId(@Param("bookingId") Long bookingId);
+
     Optional<Payment> findByTransactionId(String transactionId);
 
     List<Payment> findByStatus(PaymentStatus status);
 
+    // Rows locked by another settlement worker are skipped rather than waited on,
+    // so several nodes can drain the PENDING queue concurrently without overlap
+    @Query(value = "SELECT * FROM payments WHERE status = 'PENDING' ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Payment> lockPendingBatch(@Param("limit") int limit);
+
     @Query("SELECT p FROM Payment p WHERE p.booking.user.id = :userId")
     List<Payment> findByUserId(@Param("userId") Long userId);
 
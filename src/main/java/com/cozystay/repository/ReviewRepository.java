@@ -1,30 +1,56 @@
 package com.cozystay.repository;
 
 import com.cozystay.model.Review;
-import org.springframework.data.domain.Page;
+import com.cozystay.repository.projection.ReviewImageView;
+import com.cozystay.repository.projection.ReviewListView;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
-    Page<Review> findByServiceIdAndIsVisibleTrue(Long serviceId, Pageable pageable);
+    // Columns for the review list DTO only; images come from findImagesByReviewIds for the whole page
+    String REVIEW_LIST_SELECT = "SELECT r.id AS id, r.booking.id AS bookingId, r.rating AS rating, r.comment AS comment, " +
+            "r.isVisible AS visible, r.ownerReply AS ownerReply, r.ownerRepliedAt AS ownerRepliedAt, " +
+            "r.createdAt AS createdAt, r.updatedAt AS updatedAt, " +
+            "u.id AS userId, u.username AS userUsername, u.firstName AS userFirstName, " +
+            "u.lastName AS userLastName, u.profileImage AS userProfileImage, " +
+            "u.isProvider AS userIsProvider, u.isVerified AS userVerified, u.isActive AS userActive, " +
+            "s.id AS serviceId, s.title AS serviceTitle, s.type AS serviceType, s.thumbnailUrl AS serviceThumbnailUrl, " +
+            "s.isVerified AS serviceVerified " +
+            "FROM Review r JOIN r.user u JOIN r.service s ";
 
-    Page<Review> findByUserId(Long userId, Pageable pageable);
+    @Override
+    @EntityGraph("Review.summary")
+    Optional<Review> findById(Long id);
 
-    @Query("SELECT r FROM Review r WHERE r.service.user.id = :providerId")
-    Page<Review> findByProviderId(@Param("providerId") Long providerId, Pageable pageable);
+    @Query(REVIEW_LIST_SELECT + "WHERE s.id = :serviceId AND r.isVisible = true")
+    Slice<ReviewListView> findByServiceIdAndIsVisibleTrue(@Param("serviceId") Long serviceId, Pageable pageable);
 
-    Optional<Review> findByBookingId(Long bookingId);
+    @Query(REVIEW_LIST_SELECT + "WHERE u.id = :userId")
+    Slice<ReviewListView> findByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(REVIEW_LIST_SELECT + "WHERE s.user.id = :providerId")
+    Slice<ReviewListView> findByProviderId(@Param("providerId") Long providerId, Pageable pageable);
+
+    long countByServiceIdAndIsVisibleTrue(Long serviceId);
 
-    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.service.id = :serviceId AND r.isVisible = true")
-    Double calculateAverageRatingForService(@Param("serviceId") Long serviceId);
+    long countByUserId(Long userId);
 
-    @Query("SELECT COUNT(r) FROM Review r WHERE r.service.id = :serviceId AND r.isVisible = true")
-    Integer countReviewsForService(@Param("serviceId") Long serviceId);
+    @Query("SELECT COUNT(r) FROM Review r WHERE r.service.user.id = :providerId")
+    long countByProviderId(@Param("providerId") Long providerId);
+
+    @Query("SELECT r.id AS reviewId, i AS imageUrl FROM Review r JOIN r.images i WHERE r.id IN :reviewIds")
+    List<ReviewImageView> findImagesByReviewIds(@Param("reviewIds") Collection<Long> reviewIds);
+
+    Optional<Review> findByBookingId(Long bookingId);
 }
\ No newline at end of file
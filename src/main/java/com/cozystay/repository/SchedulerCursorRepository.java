@@ -0,0 +1,43 @@
+package com.cozystay.repository;
+
+import com.cozystay.model.SchedulerCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerCursorRepository extends JpaRepository<SchedulerCursor, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_cursors (name, fired_before) VALUES (:name, :firedBefore) " +
+            "ON CONFLICT (name) DO NOTHING",
+            nativeQuery = true)
+    int createIfMissing(@Param("name") String name, @Param("firedBefore") LocalDateTime firedBefore);
+
+    // Takes over an expired lease or renews our own; 0 means another node holds it
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SchedulerCursor c SET c.leaseOwner = :owner, c.leaseUntil = :until " +
+            "WHERE c.name = :name AND (c.leaseOwner = :owner OR c.leaseOwner IS NULL OR c.leaseUntil < :now)")
+    int acquireLease(@Param("name") String name,
+                     @Param("owner") String owner,
+                     @Param("until") LocalDateTime until,
+                     @Param("now") LocalDateTime now);
+
+    // 0 means the lease was lost, and the caller must roll back what it delivered
+    @Modifying
+    @Query("UPDATE SchedulerCursor c SET c.firedBefore = :firedBefore " +
+            "WHERE c.name = :name AND c.leaseOwner = :owner AND c.leaseUntil > :now")
+    int advance(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("firedBefore") LocalDateTime firedBefore,
+                @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE SchedulerCursor c SET c.leaseOwner = NULL, c.leaseUntil = NULL " +
+            "WHERE c.name = :name AND c.leaseOwner = :owner")
+    int releaseLease(@Param("name") String name, @Param("owner") String owner);
+}
@@ -0,0 +1,134 @@
+package com.cozystay.repository;
+
+import com.cozystay.model.ServiceDailyStats;
+import com.cozystay.repository.projection.DailyAnalyticsView;
+import com.cozystay.repository.projection.ServiceAnalyticsView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ServiceDailyStatsRepository extends JpaRepository<ServiceDailyStats, Long> {
+
+    // Adds the deltas to the (service, day) row in a single statement, creating it if needed,
+    // so concurrent writers never lose each other's increments
+    @Modifying
+    @Query(value = "INSERT INTO service_daily_stats " +
+            "(service_id, provider_id, stat_date, bookings, nights, cancellations, revenue, rating_sum, rating_count) " +
+            "VALUES (:serviceId, :providerId, :statDate, :bookings, :nights, :cancellations, :revenue, :ratingSum, :ratingCount) " +
+            "ON CONFLICT (service_id, stat_date) DO UPDATE SET " +
+            "bookings = service_daily_stats.bookings + EXCLUDED.bookings, " +
+            "nights = service_daily_stats.nights + EXCLUDED.nights, " +
+            "cancellations = service_daily_stats.cancellations + EXCLUDED.cancellations, " +
+            "revenue = service_daily_stats.revenue + EXCLUDED.revenue, " +
+            "rating_sum = service_daily_stats.rating_sum + EXCLUDED.rating_sum, " +
+            "rating_count = service_daily_stats.rating_count + EXCLUDED.rating_count",
+            nativeQuery = true)
+    void applyDelta(@Param("serviceId") Long serviceId,
+                    @Param("providerId") Long providerId,
+                    @Param("statDate") LocalDate statDate,
+                    @Param("bookings") long bookings,
+                    @Param("nights") long nights,
+                    @Param("cancellations") long cancellations,
+                    @Param("revenue") BigDecimal revenue,
+                    @Param("ratingSum") long ratingSum,
+                    @Param("ratingCount") long ratingCount);
+
+    // Adds :nights to the row of every day from :from up to (not including) :to, one per night
+    // of the stay, so a stay's nights land on the days they fall on
+    @Modifying
+    @Query(value = "INSERT INTO service_daily_stats " +
+            "(service_id, provider_id, stat_date, bookings, nights, cancellations, revenue, rating_sum, rating_count) " +
+            "SELECT :serviceId, :providerId, CAST(n.night AS DATE), 0, :nights, 0, 0, 0, 0 " +
+            "FROM generate_series(CAST(CAST(:from AS DATE) AS TIMESTAMP), " +
+            "CAST(CAST(:to AS DATE) AS TIMESTAMP) - INTERVAL '1 day', INTERVAL '1 day') AS n(night) " +
+            "ON CONFLICT (service_id, stat_date) DO UPDATE SET " +
+            "nights = service_daily_stats.nights + EXCLUDED.nights",
+            nativeQuery = true)
+    void applyNightsDelta(@Param("serviceId") Long serviceId,
+                          @Param("providerId") Long providerId,
+                          @Param("from") LocalDate from,
+                          @Param("to") LocalDate to,
+                          @Param("nights") long nights);
+
+    @Query("SELECT d.statDate AS date, SUM(d.bookings) AS bookings, SUM(d.nights) AS nights, " +
+            "SUM(d.cancellations) AS cancellations, SUM(d.revenue) AS revenue, " +
+            "SUM(d.ratingSum) AS ratingSum, SUM(d.ratingCount) AS ratingCount " +
+            "FROM ServiceDailyStats d " +
+            "WHERE d.providerId = :providerId AND d.statDate BETWEEN :from AND :to " +
+            "GROUP BY d.statDate ORDER BY d.statDate")
+    List<DailyAnalyticsView> findDailyForProvider(@Param("providerId") Long providerId,
+                                                  @Param("from") LocalDate from,
+                                                  @Param("to") LocalDate to);
+
+    @Query("SELECT d.serviceId AS serviceId, s.title AS title, SUM(d.bookings) AS bookings, " +
+            "SUM(d.nights) AS nights, SUM(d.cancellations) AS cancellations, SUM(d.revenue) AS revenue, " +
+            "SUM(d.ratingSum) AS ratingSum, SUM(d.ratingCount) AS ratingCount " +
+            "FROM ServiceDailyStats d, Service s " +
+            "WHERE s.id = d.serviceId AND d.providerId = :providerId AND d.statDate BETWEEN :from AND :to " +
+            "GROUP BY d.serviceId, s.title ORDER BY SUM(d.revenue) DESC")
+    List<ServiceAnalyticsView> findServicesForProvider(@Param("providerId") Long providerId,
+                                                       @Param("from") LocalDate from,
+                                                       @Param("to") LocalDate to);
+
+    // Backfill from the source tables; same attribution rules as ProviderAnalyticsService.
+    // The rebuild holds this lock until it commits: reads go on, but live deltas wait and then
+    // land on the rebuilt rows instead of being deleted or double counted by it.
+    @Modifying
+    @Query(value = "LOCK TABLE service_daily_stats IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM service_daily_stats", nativeQuery = true)
+    void deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO service_daily_stats " +
+            "(service_id, provider_id, stat_date, bookings, nights, cancellations, revenue, rating_sum, rating_count) " +
+            "SELECT service_id, provider_id, stat_date, SUM(bookings), SUM(nights), SUM(cancellations), 0, 0, 0 " +
+            "FROM (" +
+            "SELECT b.service_id, s.user_id AS provider_id, CAST(b.start_date_time AS DATE) AS stat_date, " +
+            "1 AS bookings, 0 AS nights, " +
+            "CASE WHEN b.status IN ('CANCELLED_BY_USER', 'CANCELLED_BY_PROVIDER') THEN 1 ELSE 0 END AS cancellations " +
+            "FROM bookings b JOIN services s ON s.id = b.service_id " +
+            "UNION ALL " +
+            "SELECT b.service_id, s.user_id, CAST(n.night AS DATE), 0, 1, 0 " +
+            "FROM bookings b JOIN services s ON s.id = b.service_id " +
+            "CROSS JOIN LATERAL generate_series(CAST(CAST(b.start_date_time AS DATE) AS TIMESTAMP), " +
+            "CAST(CAST(b.end_date_time AS DATE) AS TIMESTAMP) - INTERVAL '1 day', INTERVAL '1 day') AS n(night) " +
+            "WHERE b.status NOT IN ('CANCELLED_BY_USER', 'CANCELLED_BY_PROVIDER')" +
+            ") d " +
+            "GROUP BY service_id, provider_id, stat_date",
+            nativeQuery = true)
+    void rebuildBookingStats();
+
+    @Modifying
+    @Query(value = "INSERT INTO service_daily_stats " +
+            "(service_id, provider_id, stat_date, bookings, nights, cancellations, revenue, rating_sum, rating_count) " +
+            "SELECT b.service_id, s.user_id, CAST(p.paid_at AS DATE), 0, 0, 0, SUM(p.amount), 0, 0 " +
+            "FROM payments p JOIN bookings b ON b.id = p.booking_id JOIN services s ON s.id = b.service_id " +
+            "WHERE p.status = 'COMPLETED' AND p.paid_at IS NOT NULL " +
+            "GROUP BY b.service_id, s.user_id, CAST(p.paid_at AS DATE) " +
+            "ON CONFLICT (service_id, stat_date) DO UPDATE SET revenue = service_daily_stats.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    void rebuildRevenueStats();
+
+    @Modifying
+    @Query(value = "INSERT INTO service_daily_stats " +
+            "(service_id, provider_id, stat_date, bookings, nights, cancellations, revenue, rating_sum, rating_count) " +
+            "SELECT r.service_id, s.user_id, CAST(r.created_at AS DATE), 0, 0, 0, 0, SUM(r.rating), COUNT(*) " +
+            "FROM reviews r JOIN services s ON s.id = r.service_id " +
+            "WHERE r.is_visible = true " +
+            "GROUP BY r.service_id, s.user_id, CAST(r.created_at AS DATE) " +
+            "ON CONFLICT (service_id, stat_date) DO UPDATE SET " +
+            "rating_sum = service_daily_stats.rating_sum + EXCLUDED.rating_sum, " +
+            "rating_count = service_daily_stats.rating_count + EXCLUDED.rating_count",
+            nativeQuery = true)
+    void rebuildRatingStats();
+}
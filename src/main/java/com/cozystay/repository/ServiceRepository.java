@@ -2,44 +2,110 @@ package com.cozystay.repository;
 
 import com.cozystay.model.Service;
 import com.cozystay.model.ServiceType;
-import org.springframework.data.domain.Page;
+import com.cozystay.repository.projection.ServiceListView;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ServiceRepository extends JpaRepository<Service, Long>, JpaSpecificationExecutor<Service> {
 
-    Page<Service> findByIsActiveTrue(Pageable pageable);
+    // Columns for the service card only; description, policies, amenities and images are never read.
+    // Category and location are resolved by id from the second-level cache.
+    String SERVICE_LIST_SELECT = "SELECT s.id AS id, s.title AS title, s.type AS type, s.price AS price, " +
+            "s.pricingUnit AS pricingUnit, s.capacity AS capacity, s.thumbnailUrl AS thumbnailUrl, " +
+            "s.address AS address, s.latitude AS latitude, s.longitude AS longitude, " +
+            "s.avgRating AS avgRating, s.reviewCount AS reviewCount, s.isVerified AS verified, " +
+            "s.category.id AS categoryId, s.location.id AS locationId, " +
+            "u.id AS providerId, u.username AS providerUsername, u.firstName AS providerFirstName, " +
+            "u.lastName AS providerLastName, u.profileImage AS providerProfileImage, u.isVerified AS providerVerified, " +
+            "u.isProvider AS providerIsProvider, u.isActive AS providerActive " +
+            "FROM Service s JOIN s.user u ";
 
-    Page<Service> findByTypeAndIsActiveTrue(ServiceType type, Pageable pageable);
+    @Override
+    @EntityGraph("Service.summary")
+    Optional<Service> findById(Long id);
 
-    Page<Service> findByCategoryIdAndIsActiveTrue(Long categoryId, Pageable pageable);
+    @Query(SERVICE_LIST_SELECT + "WHERE s.isActive = true")
+    Slice<ServiceListView> findByIsActiveTrue(Pageable pageable);
 
-    Page<Service> findByLocationIdAndIsActiveTrue(Long locationId, Pageable pageable);
+    @Query(SERVICE_LIST_SELECT + "WHERE s.type = :type AND s.isActive = true")
+    Slice<ServiceListView> findByTypeAndIsActiveTrue(@Param("type") ServiceType type, Pageable pageable);
 
-    @Query("SELECT s FROM Service s WHERE s.isActive = true AND " +
+    @Query(SERVICE_LIST_SELECT + "WHERE s.category.id = :categoryId AND s.isActive = true")
+    Slice<ServiceListView> findByCategoryIdAndIsActiveTrue(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query(SERVICE_LIST_SELECT + "WHERE s.location.id = :locationId AND s.isActive = true")
+    Slice<ServiceListView> findByLocationIdAndIsActiveTrue(@Param("locationId") Long locationId, Pageable pageable);
+
+    @Query(SERVICE_LIST_SELECT + "WHERE s.isActive = true AND " +
             "s.price BETWEEN :minPrice AND :maxPrice")
-    Page<Service> findByPriceRange(@Param("minPrice") BigDecimal minPrice,
-                                   @Param("maxPrice") BigDecimal maxPrice,
-                                   Pageable pageable);
+    Slice<ServiceListView> findByPriceRange(@Param("minPrice") BigDecimal minPrice,
+                                            @Param("maxPrice") BigDecimal maxPrice,
+                                            Pageable pageable);
 
-    @Query("SELECT s FROM Service s WHERE s.isActive = true AND " +
-            "s.title LIKE %:keyword% OR s.description LIKE %:keyword%")
-    Page<Service> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+    @Query(SERVICE_LIST_SELECT + "WHERE s.isActive = true AND " +
+            "(s.title LIKE %:keyword% OR s.description LIKE %:keyword%)")
+    Slice<ServiceListView> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
-    @Query("SELECT s FROM Service s WHERE s.user.id = :userId")
-    Page<Service> findByUserId(@Param("userId") Long userId, Pageable pageable);
+    @Query(SERVICE_LIST_SELECT + "WHERE u.id = :userId")
+    Slice<ServiceListView> findByUserId(@Param("userId") Long userId, Pageable pageable);
 
-    @Query("SELECT s FROM Service s WHERE s.isActive = true " +
+    @Query(SERVICE_LIST_SELECT + "WHERE s.isActive = true " +
             "ORDER BY s.avgRating DESC")
-    Page<Service> findTopRatedServices(Pageable pageable);
+    Slice<ServiceListView> findTopRatedServices(Pageable pageable);
+
+    long countByIsActiveTrue();
+
+    long countByTypeAndIsActiveTrue(ServiceType type);
+
+    long countByCategoryIdAndIsActiveTrue(Long categoryId);
+
+    long countByLocationIdAndIsActiveTrue(Long locationId);
+
+    @Query("SELECT COUNT(s) FROM Service s WHERE s.isActive = true AND s.price BETWEEN :minPrice AND :maxPrice")
+    long countByPriceRange(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice);
+
+    @Query("SELECT COUNT(s) FROM Service s WHERE s.isActive = true AND " +
+            "(s.title LIKE %:keyword% OR s.description LIKE %:keyword%)")
+    long countByKeyword(@Param("keyword") String keyword);
+
+    long countByUserId(Long userId);
+
+    // Reads services.user_id without joining users, for AuthorizationPolicy
+    @Query("SELECT s.user.id FROM Service s WHERE s.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+
+    // Row lock that serializes holds and bookings for one service until the transaction ends
+    @Query(value = "SELECT id FROM services WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    // Locks in id order whatever order the ids come in, so two callers locking overlapping sets cannot deadlock
+    @Query(value = "SELECT id FROM services WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Recomputed in one statement from the visible reviews; touches neither the version nor the TEXT columns
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE services SET " +
+            "avg_rating = COALESCE((SELECT AVG(r.rating) FROM reviews r " +
+            "WHERE r.service_id = :serviceId AND r.is_visible = true), 0), " +
+            "review_count = (SELECT COUNT(*) FROM reviews r " +
+            "WHERE r.service_id = :serviceId AND r.is_visible = true), " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :serviceId",
+            nativeQuery = true)
+    int refreshRatingSummary(@Param("serviceId") Long serviceId);
 
     @Query(value = "SELECT s.* FROM services s " +
             "JOIN bookings b ON s.id = b.service_id " +
@@ -48,4 +114,4 @@ public interface ServiceRepository extends JpaRepository<Service, Long>, JpaSpec
             "ORDER BY COUNT(b.id) DESC",
             nativeQuery = true)
     List<Service> findMostPopularServices(Pageable pageable);
-}
\ No newline at end of file
+}
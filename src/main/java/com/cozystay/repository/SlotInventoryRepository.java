@@ -0,0 +1,72 @@
+package com.cozystay.repository;
+
+import com.cozystay.model.SlotInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface SlotInventoryRepository extends JpaRepository<SlotInventory, Long> {
+
+    // Seeded from the seats already booked in the slot, including bookings made for shifted times
+    // before counters were keyed on the slot, so slots that predate the counters stay right
+    @Modifying
+    @Query(value = "INSERT INTO slot_inventory (service_id, start_date_time, end_date_time, capacity, remaining) " +
+            "SELECT :serviceId, :startDate, :endDate, :capacity, :capacity - COALESCE(SUM(COALESCE(b.guest_count, 1)), 0) " +
+            "FROM bookings b WHERE b.service_id = :serviceId AND b.start_date_time < :endDate " +
+            "AND b.end_date_time > :startDate AND b.status NOT IN ('CANCELLED_BY_USER', 'CANCELLED_BY_PROVIDER') " +
+            "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int createIfMissing(@Param("serviceId") Long serviceId,
+                        @Param("startDate") LocalDateTime startDate,
+                        @Param("endDate") LocalDateTime endDate,
+                        @Param("capacity") int capacity);
+
+    // 0 means not enough seats left; concurrent bookings queue on the row, never on a scan
+    @Modifying
+    @Query(value = "UPDATE slot_inventory SET remaining = remaining - :seats " +
+            "WHERE service_id = :serviceId AND start_date_time = :startDate AND end_date_time = :endDate " +
+            "AND remaining >= :seats",
+            nativeQuery = true)
+    int reserve(@Param("serviceId") Long serviceId,
+                @Param("startDate") LocalDateTime startDate,
+                @Param("endDate") LocalDateTime endDate,
+                @Param("seats") int seats);
+
+    // Goes back to the counter of the slot the booking falls in, even if it was booked for shifted times
+    @Modifying
+    @Query(value = "UPDATE slot_inventory SET remaining = LEAST(capacity, remaining + :seats) " +
+            "WHERE service_id = :serviceId AND start_date_time <= :startDate AND end_date_time >= :endDate",
+            nativeQuery = true)
+    int release(@Param("serviceId") Long serviceId,
+                @Param("startDate") LocalDateTime startDate,
+                @Param("endDate") LocalDateTime endDate,
+                @Param("seats") int seats);
+
+    // Seats of the given (just cancelled) bookings go back to the counter of the slot each falls in,
+    // with the same containment as release, so bookings made for shifted times are returned too
+    @Modifying
+    @Query(value = "UPDATE slot_inventory SET remaining = LEAST(capacity, remaining + " +
+            "(SELECT SUM(COALESCE(b.guest_count, 1)) FROM bookings b WHERE b.id IN (:bookingIds) " +
+            "AND b.service_id = slot_inventory.service_id AND b.start_date_time >= slot_inventory.start_date_time " +
+            "AND b.end_date_time <= slot_inventory.end_date_time)) " +
+            "WHERE EXISTS (SELECT 1 FROM bookings b WHERE b.id IN (:bookingIds) " +
+            "AND b.service_id = slot_inventory.service_id AND b.start_date_time >= slot_inventory.start_date_time " +
+            "AND b.end_date_time <= slot_inventory.end_date_time)",
+            nativeQuery = true)
+    int releaseForBookings(@Param("bookingIds") Collection<Long> bookingIds);
+
+    // A capacity change moves the remaining seats of upcoming slots by the same amount
+    @Modifying
+    @Query(value = "UPDATE slot_inventory SET remaining = remaining + (:capacity - capacity), capacity = :capacity " +
+            "WHERE service_id = :serviceId AND start_date_time > :now",
+            nativeQuery = true)
+    int resize(@Param("serviceId") Long serviceId,
+               @Param("capacity") int capacity,
+               @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,70 @@
+package com.cozystay.repository.projection;
+
+import com.cozystay.model.BookingStatus;
+import com.cozystay.model.PricingUnit;
+import com.cozystay.model.ServiceType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One row of a booking listing page: the booking, its guest, and a summary of the booked service
+public interface BookingListView {
+
+    Long getId();
+
+    LocalDateTime getStartDateTime();
+
+    LocalDateTime getEndDateTime();
+
+    BigDecimal getTotalPrice();
+
+    Integer getGuestCount();
+
+    BookingStatus getStatus();
+
+    LocalDateTime getCreatedAt();
+
+    Long getUserId();
+
+    String getUserUsername();
+
+    String getUserFirstName();
+
+    String getUserLastName();
+
+    String getUserProfileImage();
+
+    Boolean getUserIsProvider();
+
+    Boolean getUserVerified();
+
+    Boolean getUserActive();
+
+    Long getServiceId();
+
+    String getServiceTitle();
+
+    ServiceType getServiceType();
+
+    BigDecimal getServicePrice();
+
+    PricingUnit getServicePricingUnit();
+
+    String getServiceThumbnailUrl();
+
+    String getServiceAddress();
+
+    Boolean getServiceVerified();
+
+    Long getProviderId();
+
+    String getProviderFirstName();
+
+    String getProviderLastName();
+
+    Boolean getProviderIsProvider();
+
+    Boolean getProviderVerified();
+
+    Boolean getProviderActive();
+}
@@ -0,0 +1,10 @@
+package com.cozystay.repository.projection;
+
+import com.cozystay.model.BookingStatus;
+
+public interface BookingStatusView {
+
+    Long getId();
+
+    BookingStatus getStatus();
+}
@@ -0,0 +1,21 @@
+package com.cozystay.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface DailyAnalyticsView {
+
+    LocalDate getDate();
+
+    Long getBookings();
+
+    Long getNights();
+
+    Long getCancellations();
+
+    BigDecimal getRevenue();
+
+    Long getRatingSum();
+
+    Long getRatingCount();
+}
@@ -0,0 +1,11 @@
+package com.cozystay.repository.projection;
+
+import java.time.LocalDateTime;
+
+// A booking and the timestamp one of its deadlines is measured from
+public interface DeadlineCandidateView {
+
+    Long getId();
+
+    LocalDateTime getAnchor();
+}
@@ -0,0 +1,9 @@
+package com.cozystay.repository.projection;
+
+public interface IdRangeView {
+
+    // Both null when no row matches
+    Long getMinId();
+
+    Long getMaxId();
+}
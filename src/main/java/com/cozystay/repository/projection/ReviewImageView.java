@@ -0,0 +1,8 @@
+package com.cozystay.repository.projection;
+
+public interface ReviewImageView {
+
+    Long getReviewId();
+
+    String getImageUrl();
+}
@@ -0,0 +1,53 @@
+package com.cozystay.repository.projection;
+
+import com.cozystay.model.ServiceType;
+
+import java.time.LocalDateTime;
+
+// One row of a review listing page; images are loaded separately for the whole page
+public interface ReviewListView {
+
+    Long getId();
+
+    Long getBookingId();
+
+    Integer getRating();
+
+    String getComment();
+
+    Boolean getVisible();
+
+    String getOwnerReply();
+
+    LocalDateTime getOwnerRepliedAt();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getUserId();
+
+    String getUserUsername();
+
+    String getUserFirstName();
+
+    String getUserLastName();
+
+    String getUserProfileImage();
+
+    Boolean getUserIsProvider();
+
+    Boolean getUserVerified();
+
+    Boolean getUserActive();
+
+    Long getServiceId();
+
+    String getServiceTitle();
+
+    ServiceType getServiceType();
+
+    String getServiceThumbnailUrl();
+
+    Boolean getServiceVerified();
+}
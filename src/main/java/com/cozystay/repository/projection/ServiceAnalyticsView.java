@@ -0,0 +1,22 @@
+package com.cozystay.repository.projection;
+
+import java.math.BigDecimal;
+
+public interface ServiceAnalyticsView {
+
+    Long getServiceId();
+
+    String getTitle();
+
+    Long getBookings();
+
+    Long getNights();
+
+    Long getCancellations();
+
+    BigDecimal getRevenue();
+
+    Long getRatingSum();
+
+    Long getRatingCount();
+}
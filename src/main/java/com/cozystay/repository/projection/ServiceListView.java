@@ -0,0 +1,57 @@
+package com.cozystay.repository.projection;
+
+import com.cozystay.model.PricingUnit;
+import com.cozystay.model.ServiceType;
+
+import java.math.BigDecimal;
+
+// One row of a service listing page: the service card plus its provider. Category and
+// location are only referenced by id; their rows live in the second-level cache.
+public interface ServiceListView {
+
+    Long getId();
+
+    String getTitle();
+
+    ServiceType getType();
+
+    BigDecimal getPrice();
+
+    PricingUnit getPricingUnit();
+
+    Integer getCapacity();
+
+    String getThumbnailUrl();
+
+    String getAddress();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    Double getAvgRating();
+
+    Integer getReviewCount();
+
+    Boolean getVerified();
+
+    Long getCategoryId();
+
+    Long getLocationId();
+
+    Long getProviderId();
+
+    String getProviderUsername();
+
+    String getProviderFirstName();
+
+    String getProviderLastName();
+
+    String getProviderProfileImage();
+
+    Boolean getProviderVerified();
+
+    Boolean getProviderIsProvider();
+
+    Boolean getProviderActive();
+}
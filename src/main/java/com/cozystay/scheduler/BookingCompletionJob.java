@@ -0,0 +1,99 @@
+package com.cozystay.scheduler;
+
+import com.cozystay.repository.projection.IdRangeView;
+import com.cozystay.service.BookingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Marks CONFIRMED bookings whose stay has ended as COMPLETED, so guests can review them without
+ * waiting for the provider. The id range of candidates is split into fixed-size partitions that
+ * a small worker pool updates in parallel, each partition in its own short transaction.
+ */
+@Component
+public class BookingCompletionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingCompletionJob.class);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.completion.workers:4}")
+    private int workers;
+
+    @Value("${booking.completion.partition-size:5000}")
+    private long partitionSize;
+
+    private ExecutorService executor;
+    private Counter completedCounter;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "booking-completion-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        completedCounter = Counter.builder("cozystay.bookings.completed.auto")
+                .description("Bookings completed automatically after their end date")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${booking.completion.interval-ms:300000}")
+    public void completeEndedBookings() throws InterruptedException {
+        // One cutoff for the whole run so every partition applies the same rule
+        LocalDateTime now = LocalDateTime.now();
+        IdRangeView range = bookingService.findEndedConfirmedIdRange(now);
+        if (range == null || range.getMinId() == null) {
+            return;
+        }
+
+        List<Future<Integer>> partitions = new ArrayList<>();
+        for (long from = range.getMinId(); from <= range.getMaxId(); from += partitionSize) {
+            long fromId = from;
+            long toId = Math.min(from + partitionSize - 1, range.getMaxId());
+            partitions.add(executor.submit(() -> bookingService.completeEndedInRange(fromId, toId, now)));
+        }
+
+        int completed = 0;
+        for (Future<Integer> partition : partitions) {
+            try {
+                completed += partition.get();
+            } catch (ExecutionException ex) {
+                // The next run retries the range; rows already completed are skipped by the status guard
+                logger.error("Booking completion partition failed", ex.getCause());
+            }
+        }
+
+        completedCounter.increment(completed);
+        if (completed > 0) {
+            logger.info("Completed {} bookings past their end date", completed);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.cozystay.scheduler;
+
+import com.cozystay.service.BookingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BookingExpiryJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingExpiryJob.class);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.expiry.batch-size:200}")
+    private int batchSize;
+
+    @Value("${booking.expiry.max-batches:20}")
+    private int maxBatches;
+
+    private Counter expiredCounter;
+    private Timer runTimer;
+
+    @PostConstruct
+    public void init() {
+        expiredCounter = Counter.builder("cozystay.bookings.expired")
+                .description("Stale PENDING bookings cancelled by the expiry job")
+                .register(meterRegistry);
+        runTimer = Timer.builder("cozystay.bookings.expiry.run")
+                .description("Time spent per expiry run")
+                .register(meterRegistry);
+    }
+
+    // Each batch is one statement in its own transaction, so row locks last one batch at most
+    @Scheduled(fixedDelayString = "${booking.expiry.interval-ms:60000}")
+    public void expireStalePendingBookings() {
+        runTimer.record(() -> {
+            int expired = 0;
+            for (int i = 0; i < maxBatches; i++) {
+                int processed = bookingService.expireStalePendingBatch(batchSize);
+                expired += processed;
+                expiredCounter.increment(processed);
+                if (processed < batchSize) {
+                    break;
+                }
+            }
+
+            if (expired > 0) {
+                logger.info("Expired {} stale pending bookings", expired);
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.cozystay.scheduler;
+
+import com.cozystay.service.BookingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BookingHoldPurgeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingHoldPurgeJob.class);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Scheduled(fixedDelayString = "${booking.holds.purge-interval-ms:600000}")
+    public void purgeExpiredHolds() {
+        int purged = bookingService.purgeExpiredHolds();
+        if (purged > 0) {
+            logger.debug("Purged {} expired booking holds", purged);
+        }
+    }
+}
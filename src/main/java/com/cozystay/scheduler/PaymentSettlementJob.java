@@ -0,0 +1,41 @@
+package com.cozystay.scheduler;
+
+import com.cozystay.service.PaymentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PaymentSettlementJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentSettlementJob.class);
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Value("${payment.settlement.batch-size:50}")
+    private int batchSize;
+
+    @Value("${payment.settlement.max-batches:20}")
+    private int maxBatches;
+
+    // Each batch commits on its own so row locks are held only for one batch at a time
+    @Scheduled(fixedDelayString = "${payment.settlement.interval-ms:10000}")
+    public void settlePendingPayments() {
+        int settled = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int processed = paymentService.settlePendingBatch(batchSize);
+            settled += processed;
+            if (processed < batchSize) {
+                break;
+            }
+        }
+
+        if (settled > 0) {
+            logger.info("Settled {} pending payments", settled);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.cozystay.security;
+
+import com.cozystay.exception.ResourceNotFoundException;
+import com.cozystay.exception.UnauthorizedException;
+import com.cozystay.model.Role;
+import com.cozystay.model.User;
+import com.cozystay.repository.ServiceRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Role and ownership checks for the service layer. Roles are tested against the principal's
+ * precomputed bitmask, and service ownership against an in-memory serviceId -> ownerId map,
+ * so neither check loads an entity. Owners never change, so an entry only needs to be added
+ * when a service is created (or first checked) and dropped when it is deleted.
+ */
+@Component
+public class AuthorizationPolicy {
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${authorization.owner-map.initial-capacity:4096}")
+    private int initialCapacity;
+
+    private ServiceOwnerMap owners;
+
+    @PostConstruct
+    public void init() {
+        owners = new ServiceOwnerMap(initialCapacity);
+        Gauge.builder("cozystay.authorization.owner.map.size", owners, ServiceOwnerMap::size)
+                .register(meterRegistry);
+    }
+
+    public boolean hasRole(User user, Role role) {
+        return (user.getRoleMask() & role.mask()) != 0;
+    }
+
+    public boolean hasAnyRole(User user, Role... roles) {
+        int mask = 0;
+        for (Role role : roles) {
+            mask |= role.mask();
+        }
+        return (user.getRoleMask() & mask) != 0;
+    }
+
+    public boolean isAdmin(User user) {
+        return hasRole(user, Role.ADMIN);
+    }
+
+    public void requireAdmin(User user, String message) {
+        if (!isAdmin(user)) {
+            throw new UnauthorizedException(message);
+        }
+    }
+
+    public void requireAnyRole(User user, String message, Role... roles) {
+        if (!hasAnyRole(user, roles)) {
+            throw new UnauthorizedException(message);
+        }
+    }
+
+    // Throws ResourceNotFoundException for an unknown service, like loading it would
+    public long ownerOf(Long serviceId) {
+        long owner = owners.get(serviceId);
+        if (owner != ServiceOwnerMap.MISSING) {
+            return owner;
+        }
+
+        owner = serviceRepository.findOwnerIdById(serviceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Service not found with id: " + serviceId));
+        owners.put(serviceId, owner);
+        return owner;
+    }
+
+    public boolean ownsService(User user, Long serviceId) {
+        return ownerOf(serviceId) == user.getId();
+    }
+
+    public void requireServiceOwner(User user, Long serviceId, String message) {
+        if (!ownsService(user, serviceId)) {
+            throw new UnauthorizedException(message);
+        }
+    }
+
+    public void requireServiceOwnerOrAdmin(User user, Long serviceId, String message) {
+        // Still resolves the owner for admins so an unknown service is a 404 for everyone
+        if (!ownsService(user, serviceId) && !isAdmin(user)) {
+            throw new UnauthorizedException(message);
+        }
+    }
+
+    public void serviceCreated(Long serviceId, Long ownerId) {
+        owners.put(serviceId, ownerId);
+    }
+
+    public void serviceDeleted(Long serviceId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    owners.remove(serviceId);
+                }
+            });
+        } else {
+            owners.remove(serviceId);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.cozystay.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,18 +24,45 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private RevocationIndex revocationIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                // Get authentication from JWT token
-                Authentication authentication = tokenProvider.getAuthenticationToken(jwt);
+            if (StringUtils.hasText(jwt)) {
+                // Times signature verification plus the user lookup behind it
+                Timer.Sample sample = Timer.start(meterRegistry);
+                String outcome = "invalid";
+                try {
+                    if (tokenProvider.validateToken(jwt)) {
+                        Claims claims = tokenProvider.getClaims(jwt);
+                        if (tokenProvider.isRefreshToken(claims)) {
+                            outcome = "invalid";
+                        } else if (revocationIndex.isRevoked(claims.get(JwtTokenProvider.FAMILY_CLAIM, String.class))) {
+                            outcome = "revoked";
+                        } else {
+                            // Get authentication from JWT token
+                            Authentication authentication = tokenProvider.getAuthenticationToken(jwt);
 
-                // Set authentication to Security Context
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                            // Set authentication to Security Context
+                            SecurityContextHolder.getContext().setAuthentication(authentication);
+                            outcome = "valid";
+                        }
+                    }
+                } finally {
+                    sample.stop(Timer.builder("cozystay.jwt.verification")
+                            .description("JWT verification and authentication time")
+                            .tag("outcome", outcome)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry));
+                }
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
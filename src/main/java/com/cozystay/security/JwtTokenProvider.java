@@ -29,6 +29,12 @@ public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    // Refresh token family (see RefreshTokenService); access tokens carry it so a revoked family
+    // also rejects the access tokens issued with it
+    public static final String FAMILY_CLAIM = "fid";
+    public static final String TYPE_CLAIM = "type";
+    public static final String REFRESH_TYPE = "refresh";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -52,8 +58,10 @@ public class JwtTokenProvider {
     }
 
     public String generateToken(Authentication authentication) {
-        User userPrincipal = (User) authentication.getPrincipal();
+        return generateToken((User) authentication.getPrincipal(), null);
+    }
 
+    public String generateToken(User userPrincipal, String familyId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
@@ -66,6 +74,9 @@ public class JwtTokenProvider {
         claims.put("userId", userPrincipal.getId());
         claims.put("email", userPrincipal.getEmail());
         claims.put("isProvider", userPrincipal.isProvider());
+        if (familyId != null) {
+            claims.put(FAMILY_CLAIM, familyId);
+        }
 
         return Jwts.builder()
                 .setClaims(claims)
@@ -75,20 +86,33 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public String generateRefreshToken(Authentication authentication) {
-        User userPrincipal = (User) authentication.getPrincipal();
-
+    public String generateRefreshToken(User userPrincipal, String tokenId, String familyId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + refreshExpirationInMs);
 
         return Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
+                .setId(tokenId)
+                .claim(FAMILY_CLAIM, familyId)
+                .claim(TYPE_CLAIM, REFRESH_TYPE)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(key)
                 .compact();
     }
 
+    public Claims getClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public boolean isRefreshToken(Claims claims) {
+        return REFRESH_TYPE.equals(claims.get(TYPE_CLAIM, String.class));
+    }
+
     public String getUsernameFromJWT(String token) {
         Claims claims = Jwts.parserBuilder()
                 .setSigningKey(key)
@@ -0,0 +1,98 @@
+package com.cozystay.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory set of revoked token family ids, checked on every authenticated request.
+ * A Bloom filter answers the common "not revoked" case without touching the exact set;
+ * only its (rare) positives are confirmed against the set. Rebuilt from the database by
+ * RefreshTokenService, which also bounds how long a revocation on another node goes unseen.
+ */
+@Component
+public class RevocationIndex {
+
+    private record Snapshot(BloomFilter bloom, Set<String> families) {
+
+        void add(String familyId) {
+            families.add(familyId);
+            bloom.put(familyId);
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.revocation.expected-families:100000}")
+    private long expectedFamilies;
+
+    @Value("${auth.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile Snapshot snapshot;
+
+    // Revocations made while a rebuild is reading the database, replayed into the new snapshot
+    private Set<String> pending;
+
+    @PostConstruct
+    public void init() {
+        snapshot = newSnapshot(0);
+        Gauge.builder("cozystay.auth.revoked.families", this, index -> index.snapshot.families().size())
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String familyId) {
+        if (familyId == null) {
+            return false;
+        }
+        Snapshot current = snapshot;
+        return current.bloom().mightContain(familyId) && current.families().contains(familyId);
+    }
+
+    public synchronized void revoke(String familyId) {
+        snapshot.add(familyId);
+        if (pending != null) {
+            pending.add(familyId);
+        }
+    }
+
+    public void rebuild(Supplier<Collection<String>> revokedFamilies) {
+        synchronized (this) {
+            pending = new HashSet<>();
+        }
+
+        Collection<String> families;
+        try {
+            families = revokedFamilies.get();
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                pending = null;
+            }
+            throw ex;
+        }
+
+        synchronized (this) {
+            Snapshot rebuilt = newSnapshot(families.size() + pending.size());
+            families.forEach(rebuilt::add);
+            pending.forEach(rebuilt::add);
+            snapshot = rebuilt;
+            pending = null;
+        }
+    }
+
+    private Snapshot newSnapshot(int size) {
+        // Leave room for revocations until the next rebuild
+        long capacity = Math.max(expectedFamilies, 2L * size);
+        return new Snapshot(new BloomFilter(capacity, falsePositiveRate), ConcurrentHashMap.newKeySet());
+    }
+}
@@ -0,0 +1,131 @@
+package com.cozystay.security;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing map from service id to owner id on primitive longs, so a lookup neither
+ * boxes nor allocates. Reads are optimistic and only fall back to the read lock when they
+ * race with a write. Ids must be positive; 0 marks an empty slot.
+ */
+class ServiceOwnerMap {
+
+    static final long MISSING = -1L;
+
+    private final StampedLock lock = new StampedLock();
+
+    // Keys and values interleaved (key at 2i, value at 2i + 1) so a reader sees one array
+    private long[] table;
+    private int size;
+
+    ServiceOwnerMap(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(16, initialCapacity) - 1) << 1;
+        table = new long[capacity * 2];
+    }
+
+    long get(long serviceId) {
+        long stamp = lock.tryOptimisticRead();
+        long owner = find(table, serviceId);
+        if (lock.validate(stamp)) {
+            return owner;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return find(table, serviceId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    void put(long serviceId, long ownerId) {
+        long stamp = lock.writeLock();
+        try {
+            // Resize at 50% load so probe sequences stay short
+            if ((size + 1) * 4 > table.length) {
+                long[] old = table;
+                table = new long[old.length * 2];
+                for (int i = 0; i < old.length; i += 2) {
+                    if (old[i] != 0) {
+                        insert(table, old[i], old[i + 1]);
+                    }
+                }
+            }
+            if (insert(table, serviceId, ownerId)) {
+                size++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void remove(long serviceId) {
+        long stamp = lock.writeLock();
+        try {
+            long[] t = table;
+            int mask = t.length / 2 - 1;
+            int slot = slot(serviceId, mask);
+            while (t[slot * 2] != 0) {
+                if (t[slot * 2] == serviceId) {
+                    size--;
+                    // Backward-shift deletion: pull later entries of the probe run into the gap
+                    int gap = slot;
+                    int next = (gap + 1) & mask;
+                    while (t[next * 2] != 0) {
+                        int home = slot(t[next * 2], mask);
+                        if (((next - home) & mask) >= ((next - gap) & mask)) {
+                            t[gap * 2] = t[next * 2];
+                            t[gap * 2 + 1] = t[next * 2 + 1];
+                            gap = next;
+                        }
+                        next = (next + 1) & mask;
+                    }
+                    t[gap * 2] = 0;
+                    t[gap * 2 + 1] = 0;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static long find(long[] t, long key) {
+        int slots = t.length / 2;
+        int mask = slots - 1;
+        int slot = slot(key, mask);
+        // Bounded so an optimistic read racing a writer can't spin forever
+        for (int probes = 0; probes < slots; probes++) {
+            long current = t[slot * 2];
+            if (current == key) {
+                return t[slot * 2 + 1];
+            }
+            if (current == 0) {
+                return MISSING;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    private static boolean insert(long[] t, long key, long value) {
+        int mask = t.length / 2 - 1;
+        int slot = slot(key, mask);
+        while (t[slot * 2] != 0 && t[slot * 2] != key) {
+            slot = (slot + 1) & mask;
+        }
+        boolean added = t[slot * 2] == 0;
+        t[slot * 2 + 1] = value;
+        t[slot * 2] = key;
+        return added;
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
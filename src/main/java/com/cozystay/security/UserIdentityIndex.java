@@ -0,0 +1,112 @@
+package com.cozystay.security;
+
+import com.cozystay.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over every registered username and email. A negative answer means the value
+ * is definitely free and needs no query; a positive one is confirmed against the database.
+ * Registrations on this node are added as they commit; the periodic rebuild picks up other
+ * nodes' registrations and sheds deleted accounts. Until then a value taken elsewhere can be
+ * reported as available, and the unique constraint still rejects it at registration.
+ */
+@Component
+public class UserIdentityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserIdentityIndex.class);
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${auth.identity-index.expected-users:100000}")
+    private long expectedUsers;
+
+    @Value("${auth.identity-index.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Null until the first build; everything is treated as a possible hit meanwhile
+    private volatile Filters filters;
+
+    // Registrations committed while a rebuild is streaming users, replayed into the new filters
+    private List<String[]> pending;
+
+    public boolean mightHaveUsername(String username) {
+        Filters current = filters;
+        return current == null || current.usernames().mightContain(username);
+    }
+
+    public boolean mightHaveEmail(String email) {
+        Filters current = filters;
+        return current == null || current.emails().mightContain(email);
+    }
+
+    public synchronized void add(String username, String email) {
+        if (filters != null) {
+            filters.usernames().put(username);
+            filters.emails().put(email);
+        }
+        if (pending != null) {
+            pending.add(new String[]{username, email});
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${auth.identity-index.rebuild-interval-ms:600000}",
+            fixedDelayString = "${auth.identity-index.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+
+        try {
+            long capacity = Math.max(expectedUsers, 2 * userRepository.count());
+            Filters rebuilt = new Filters(new BloomFilter(capacity, falsePositiveRate),
+                    new BloomFilter(capacity, falsePositiveRate));
+
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = userRepository.streamUsernamesAndEmails()) {
+                    rows.forEach(row -> {
+                        rebuilt.usernames().put((String) row[0]);
+                        rebuilt.emails().put((String) row[1]);
+                    });
+                }
+            });
+
+            synchronized (this) {
+                for (String[] entry : pending) {
+                    rebuilt.usernames().put(entry[0]);
+                    rebuilt.emails().put(entry[1]);
+                }
+                filters = rebuilt;
+            }
+        } catch (RuntimeException ex) {
+            // Keep serving the previous filters (or confirming everything with the database)
+            logger.error("Could not rebuild the username/email index", ex);
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+    }
+}
@@ -1,23 +1,31 @@
 package com.cozystay.service;
 
+import com.cozystay.dto.auth.AccountAvailabilityResponse;
 import com.cozystay.dto.auth.JwtAuthenticationResponse;
 import com.cozystay.dto.auth.LoginRequest;
+import com.cozystay.dto.auth.RefreshTokenRequest;
 import com.cozystay.dto.auth.RegisterRequest;
+import com.cozystay.exception.BadRequestException;
 import com.cozystay.exception.ResourceAlreadyExistsException;
 import com.cozystay.model.Role;
 import com.cozystay.model.User;
 import com.cozystay.repository.UserRepository;
 import com.cozystay.security.JwtTokenProvider;
+import com.cozystay.security.UserIdentityIndex;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Locale;
 
 @Service
 public class AuthService {
@@ -34,6 +42,12 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserIdentityIndex userIdentityIndex;
+
     public JwtAuthenticationResponse authenticateUser(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -43,11 +57,29 @@ public class AuthService {
         );
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(authentication);
 
         User user = (User) authentication.getPrincipal();
+        String familyId = refreshTokenService.newFamily();
+        String refreshToken = refreshTokenService.issue(user, familyId);
+
+        return buildResponse(user, familyId, refreshToken);
+    }
+
+    // Exchanges a refresh token for a new access/refresh pair without going through BCrypt
+    public JwtAuthenticationResponse refreshToken(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        return buildResponse(rotation.user(), rotation.familyId(), rotation.refreshToken());
+    }
+
+    public void logout(RefreshTokenRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+    }
+
+    private JwtAuthenticationResponse buildResponse(User user, String familyId, String refreshToken) {
+        String jwt = tokenProvider.generateToken(user, familyId);
 
         return new JwtAuthenticationResponse(jwt,
+                refreshToken,
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
@@ -57,14 +89,24 @@ public class AuthService {
                 user.isProvider());
     }
 
+    public AccountAvailabilityResponse checkAvailability(String username, String email) {
+        if (!StringUtils.hasText(username) && !StringUtils.hasText(email)) {
+            throw new BadRequestException("Provide a username or an email to check");
+        }
+
+        Boolean usernameAvailable = StringUtils.hasText(username) ? !usernameTaken(username) : null;
+        Boolean emailAvailable = StringUtils.hasText(email) ? !emailTaken(email) : null;
+        return new AccountAvailabilityResponse(usernameAvailable, emailAvailable);
+    }
+
     public User registerUser(RegisterRequest registerRequest) {
-        // Check if username already exists
-        if (userRepository.existsByUsername(registerRequest.getUsername())) {
+        // Only a possible hit in the index costs a query, and it saves hashing a password for
+        // a request that would fail anyway. The unique constraints remain the actual guard.
+        if (usernameTaken(registerRequest.getUsername())) {
             throw new ResourceAlreadyExistsException("Username is already taken");
         }
 
-        // Check if email already exists
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
+        if (emailTaken(registerRequest.getEmail())) {
             throw new ResourceAlreadyExistsException("Email is already in use");
         }
 
@@ -83,6 +125,41 @@ public class AuthService {
                         registerRequest.isProvider() ? Role.PROVIDER : Role.USER)))
                 .build();
 
-        return userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw duplicateUser(ex);
+        }
+
+        userIdentityIndex.add(savedUser.getUsername(), savedUser.getEmail());
+        return savedUser;
+    }
+
+    private boolean usernameTaken(String username) {
+        return userIdentityIndex.mightHaveUsername(username) && userRepository.existsByUsername(username);
+    }
+
+    private boolean emailTaken(String email) {
+        return userIdentityIndex.mightHaveEmail(email) && userRepository.existsByEmail(email);
+    }
+
+    // A concurrent signup won the race (or the index had not seen it yet). Databases created before
+    // the constraints were named still report generated names (uk_xxxx), so the driver message, which
+    // names the column ("Key (username)=..." on PostgreSQL), is checked as well.
+    private RuntimeException duplicateUser(DataIntegrityViolationException ex) {
+        String constraint = ex.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                ? violation.getConstraintName()
+                : "";
+        String detail = (constraint + " " + ex.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+
+        if (detail.contains(User.USERNAME_CONSTRAINT) || detail.contains("(username")) {
+            return new ResourceAlreadyExistsException("Username is already taken");
+        }
+        if (detail.contains(User.EMAIL_CONSTRAINT) || detail.contains("(email")) {
+            return new ResourceAlreadyExistsException("Email is already in use");
+        }
+        return ex;
     }
-}
\ No newline at end of file
+}
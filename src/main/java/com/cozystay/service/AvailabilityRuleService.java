@@ -0,0 +1,265 @@
+package com.cozystay.service;
+
+import com.cozystay.dto.availability.AvailabilityOverrideRequest;
+import com.cozystay.dto.availability.AvailabilityOverrideResponse;
+import com.cozystay.dto.availability.AvailabilityResponse;
+import com.cozystay.dto.availability.AvailabilityRuleRequest;
+import com.cozystay.dto.availability.AvailabilityRuleResponse;
+import com.cozystay.exception.BadRequestException;
+import com.cozystay.exception.ResourceNotFoundException;
+import com.cozystay.model.AvailabilityOverride;
+import com.cozystay.model.AvailabilityRule;
+import com.cozystay.model.Service;
+import com.cozystay.model.User;
+import com.cozystay.repository.AvailabilityOverrideRepository;
+import com.cozystay.repository.AvailabilityRuleRepository;
+import com.cozystay.repository.ServiceRepository;
+import com.cozystay.security.AuthorizationPolicy;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@org.springframework.stereotype.Service
+public class AvailabilityRuleService {
+
+    // Occurrences are expanded day by day, so the window is capped like the analytics range
+    private static final int MAX_RANGE_DAYS = 366;
+
+    @Autowired
+    private AvailabilityRuleRepository availabilityRuleRepository;
+
+    @Autowired
+    private AvailabilityOverrideRepository availabilityOverrideRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private AuthorizationPolicy authorizationPolicy;
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    public List<AvailabilityRuleResponse> getRulesByServiceId(Long serviceId) {
+        List<AvailabilityRule> rules = availabilityRuleRepository.findByServiceId(serviceId);
+        return rules.stream()
+                .map(rule -> modelMapper.map(rule, AvailabilityRuleResponse.class))
+                .collect(Collectors.toList());
+    }
+
+    public List<AvailabilityResponse> getOccurrencesByServiceId(
+            Long serviceId, LocalDateTime startDate, LocalDateTime endDate) {
+        return expandOccurrences(serviceId, startDate, endDate, false);
+    }
+
+    /**
+     * Expands the service's rules for the given window only and returns the available
+     * occurrences overlapping it, with overrides applied. Nothing is materialized.
+     */
+    public List<AvailabilityResponse> getAvailableOccurrences(
+            Long serviceId, LocalDateTime startDate, LocalDateTime endDate) {
+        return expandOccurrences(serviceId, startDate, endDate, true);
+    }
+
+    public boolean hasAvailableOccurrence(Long serviceId, LocalDateTime startDate, LocalDateTime endDate) {
+        return !getAvailableOccurrences(serviceId, startDate, endDate).isEmpty();
+    }
+
+    public void validateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new BadRequestException("Start date must be before end date");
+        }
+
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_RANGE_DAYS) {
+            throw new BadRequestException("Date range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    @Transactional
+    public AvailabilityRuleResponse createRule(AvailabilityRuleRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) authentication.getPrincipal();
+
+        // Verify the current user is the service owner; the service itself is only needed as a reference
+        authorizationPolicy.requireServiceOwnerOrAdmin(currentUser, request.getServiceId(),
+                "You can only manage availabilities for your own services");
+        Service service = serviceRepository.getReferenceById(request.getServiceId());
+
+        if (request.getValidUntil() != null && request.getValidFrom().isAfter(request.getValidUntil())) {
+            throw new BadRequestException("Valid from date must be before valid until date");
+        }
+
+        AvailabilityRule rule = AvailabilityRule.builder()
+                .service(service)
+                .daysOfWeek(new HashSet<>(request.getDaysOfWeek()))
+                .startTime(request.getStartTime())
+                .endTime(request.getEndTime())
+                .validFrom(request.getValidFrom())
+                .validUntil(request.getValidUntil())
+                .isAvailable(request.isAvailable())
+                .notes(request.getNotes())
+                .overrides(new ArrayList<>())
+                .build();
+
+        AvailabilityRule savedRule = availabilityRuleRepository.save(rule);
+        return modelMapper.map(savedRule, AvailabilityRuleResponse.class);
+    }
+
+    @Transactional
+    public void deleteRule(Long id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) authentication.getPrincipal();
+
+        AvailabilityRule rule = availabilityRuleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Availability rule not found with id: " + id));
+
+        // Verify the current user is the service owner
+        authorizationPolicy.requireServiceOwnerOrAdmin(currentUser, rule.getService().getId(),
+                "You can only delete availabilities for your own services");
+
+        availabilityRuleRepository.delete(rule);
+    }
+
+    @Transactional
+    public AvailabilityOverrideResponse addOverride(Long ruleId, AvailabilityOverrideRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) authentication.getPrincipal();
+
+        AvailabilityRule rule = availabilityRuleRepository.findById(ruleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Availability rule not found with id: " + ruleId));
+
+        // Verify the current user is the service owner
+        authorizationPolicy.requireServiceOwnerOrAdmin(currentUser, rule.getService().getId(),
+                "You can only manage availabilities for your own services");
+
+        if ((request.getStartTime() == null) != (request.getEndTime() == null)) {
+            throw new BadRequestException("Override start and end times must be provided together");
+        }
+
+        // An override for a date the rule never starts on would be stored but never applied
+        if (!isOccurrenceDate(rule, request.getOccurrenceDate())) {
+            throw new BadRequestException("Override date " + request.getOccurrenceDate() +
+                    " is not an occurrence of availability rule " + ruleId);
+        }
+
+        // One override per occurrence; a second request replaces the first
+        AvailabilityOverride override = availabilityOverrideRepository
+                .findByRuleIdAndOccurrenceDate(ruleId, request.getOccurrenceDate())
+                .orElseGet(() -> AvailabilityOverride.builder()
+                        .rule(rule)
+                        .occurrenceDate(request.getOccurrenceDate())
+                        .build());
+
+        override.setAvailable(request.isAvailable());
+        override.setStartTime(request.getStartTime());
+        override.setEndTime(request.getEndTime());
+        override.setNotes(request.getNotes());
+
+        AvailabilityOverride savedOverride = availabilityOverrideRepository.save(override);
+        return modelMapper.map(savedOverride, AvailabilityOverrideResponse.class);
+    }
+
+    @Transactional
+    public void deleteOverride(Long overrideId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) authentication.getPrincipal();
+
+        AvailabilityOverride override = availabilityOverrideRepository.findById(overrideId)
+                .orElseThrow(() -> new ResourceNotFoundException("Availability override not found with id: " + overrideId));
+
+        // Verify the current user is the service owner
+        authorizationPolicy.requireServiceOwnerOrAdmin(currentUser, override.getRule().getService().getId(),
+                "You can only delete availabilities for your own services");
+
+        availabilityOverrideRepository.delete(override);
+    }
+
+    private List<AvailabilityResponse> expandOccurrences(
+            Long serviceId, LocalDateTime startDate, LocalDateTime endDate, boolean availableOnly) {
+
+        validateRange(startDate, endDate);
+
+        // An overnight occurrence that started the day before can still overlap the window
+        LocalDate firstDate = startDate.toLocalDate().minusDays(1);
+        LocalDate lastDate = endDate.toLocalDate();
+
+        List<AvailabilityRule> rules = availabilityRuleRepository.findRulesForServiceBetweenDates(
+                serviceId, firstDate, lastDate);
+
+        if (rules.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Map<LocalDate, AvailabilityOverride>> overridesByRule = new HashMap<>();
+        List<Long> ruleIds = rules.stream().map(AvailabilityRule::getId).collect(Collectors.toList());
+        for (AvailabilityOverride override : availabilityOverrideRepository
+                .findByRuleIdInAndOccurrenceDateBetween(ruleIds, firstDate, lastDate)) {
+            overridesByRule.computeIfAbsent(override.getRule().getId(), id -> new HashMap<>())
+                    .put(override.getOccurrenceDate(), override);
+        }
+
+        List<AvailabilityResponse> occurrences = new ArrayList<>();
+        for (AvailabilityRule rule : rules) {
+            Map<LocalDate, AvailabilityOverride> overrides =
+                    overridesByRule.getOrDefault(rule.getId(), Collections.emptyMap());
+
+            for (LocalDate date = firstDate; !date.isAfter(lastDate); date = date.plusDays(1)) {
+                if (!isOccurrenceDate(rule, date)) {
+                    continue;
+                }
+
+                LocalTime startTime = rule.getStartTime();
+                LocalTime endTime = rule.getEndTime();
+                boolean isAvailable = rule.isAvailable();
+                String notes = rule.getNotes();
+
+                AvailabilityOverride override = overrides.get(date);
+                if (override != null) {
+                    isAvailable = override.isAvailable();
+                    if (override.getStartTime() != null) {
+                        startTime = override.getStartTime();
+                        endTime = override.getEndTime();
+                    }
+                    if (override.getNotes() != null) {
+                        notes = override.getNotes();
+                    }
+                }
+
+                if (availableOnly && !isAvailable) {
+                    continue;
+                }
+
+                LocalDateTime occurrenceStart = date.atTime(startTime);
+                LocalDateTime occurrenceEnd = endTime.isAfter(startTime)
+                        ? date.atTime(endTime)
+                        : date.plusDays(1).atTime(endTime);
+
+                // Same overlap test as AvailabilityRepository.findAvailableSlotsForServiceBetweenDates
+                if (occurrenceStart.isAfter(endDate) || occurrenceEnd.isBefore(startDate)) {
+                    continue;
+                }
+
+                occurrences.add(new AvailabilityResponse(null, serviceId, occurrenceStart, occurrenceEnd,
+                        isAvailable, notes, rule.getCreatedAt(), rule.getUpdatedAt()));
+            }
+        }
+
+        occurrences.sort(Comparator.comparing(AvailabilityResponse::getStartDateTime));
+        return occurrences;
+    }
+
+    private boolean isOccurrenceDate(AvailabilityRule rule, LocalDate date) {
+        return !date.isBefore(rule.getValidFrom()) &&
+                (rule.getValidUntil() == null || !date.isAfter(rule.getValidUntil())) &&
+                rule.getDaysOfWeek().contains(date.getDayOfWeek());
+    }
+}
@@ -4,19 +4,25 @@ import com.cozystay.dto.availability.AvailabilityRequest;
 import com.cozystay.dto.availability.AvailabilityResponse;
 import com.cozystay.exception.BadRequestException;
 import com.cozystay.exception.ResourceNotFoundException;
-import com.cozystay.exception.UnauthorizedException;
+import com.cozystay.hold.BookingHoldIndex;
 import com.cozystay.model.Availability;
 import com.cozystay.model.Service;
 import com.cozystay.model.User;
 import com.cozystay.repository.AvailabilityRepository;
 import com.cozystay.repository.ServiceRepository;
+import com.cozystay.security.AuthorizationPolicy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,9 +35,25 @@ public class AvailabilityService {
     @Autowired
     private ServiceRepository serviceRepository;
 
+    @Autowired
+    private AvailabilityRuleService availabilityRuleService;
+
+    @Autowired
+    private AuthorizationPolicy authorizationPolicy;
+
+    @Autowired
+    private BookingHoldIndex bookingHoldIndex;
+
     @Autowired
     private ModelMapper modelMapper;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Transactional(readOnly = true)
     public List<AvailabilityResponse> getAvailabilitiesByServiceId(Long serviceId) {
         List<Availability> availabilities = availabilityRepository.findByServiceId(serviceId);
         return availabilities.stream()
@@ -39,6 +61,7 @@ public class AvailabilityService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<AvailabilityResponse> getAvailabilitiesByServiceIdBetweenDates(
             Long serviceId, LocalDateTime startDate, LocalDateTime endDate) {
 
@@ -54,19 +77,28 @@ public class AvailabilityService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<AvailabilityResponse> getAvailableDatesByServiceId(
             Long serviceId, LocalDateTime startDate, LocalDateTime endDate) {
 
-        if (startDate.isAfter(endDate)) {
-            throw new BadRequestException("Start date must be before end date");
-        }
+        // Checked before the slot query too, not only when the rules are expanded
+        availabilityRuleService.validateRange(startDate, endDate);
 
         List<Availability> availabilities = availabilityRepository.findAvailableSlotsForServiceBetweenDates(
                 serviceId, startDate, endDate);
 
-        return availabilities.stream()
+        List<AvailabilityResponse> slots = availabilities.stream()
                 .map(availability -> modelMapper.map(availability, AvailabilityResponse.class))
                 .collect(Collectors.toList());
+
+        // Recurring rules are expanded for the requested window only
+        slots.addAll(availabilityRuleService.getAvailableOccurrences(serviceId, startDate, endDate));
+
+        // Dates another guest is checking out are left out until the hold lapses (holds known to this node)
+        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        List<BookingHoldIndex.Hold> holds = bookingHoldIndex.heldByOthers(serviceId, startDate, endDate,
+                currentUser.getId());
+        return holds.isEmpty() ? slots : withoutHeldDates(slots, holds);
     }
 
     @Transactional
@@ -74,14 +106,10 @@ public class AvailabilityService {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
 
-        Service service = serviceRepository.findById(request.getServiceId())
-                .orElseThrow(() -> new ResourceNotFoundException("Service not found with id: " + request.getServiceId()));
-
-        // Verify the current user is the service owner
-        if (!service.getUser().getId().equals(currentUser.getId()) &&
-                !currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You can only manage availabilities for your own services");
-        }
+        // Verify the current user is the service owner; the service itself is only needed as a reference
+        authorizationPolicy.requireServiceOwnerOrAdmin(currentUser, request.getServiceId(),
+                "You can only manage availabilities for your own services");
+        Service service = serviceRepository.getReferenceById(request.getServiceId());
 
         // Validate dates
         if (request.getStartDateTime().isAfter(request.getEndDateTime())) {
@@ -118,14 +146,10 @@ public class AvailabilityService {
             throw new BadRequestException("All availability requests must be for the same service");
         }
 
-        Service service = serviceRepository.findById(serviceId)
-                .orElseThrow(() -> new ResourceNotFoundException("Service not found with id: " + serviceId));
-
-        // Verify the current user is the service owner
-        if (!service.getUser().getId().equals(currentUser.getId()) &&
-                !currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You can only manage availabilities for your own services");
-        }
+        // Verify the current user is the service owner; the service itself is only needed as a reference
+        authorizationPolicy.requireServiceOwnerOrAdmin(currentUser, serviceId,
+                "You can only manage availabilities for your own services");
+        Service service = serviceRepository.getReferenceById(serviceId);
 
         List<Availability> availabilities = requests.stream()
                 .map(req -> {
@@ -144,7 +168,17 @@ public class AvailabilityService {
                 })
                 .collect(Collectors.toList());
 
-        List<Availability> savedAvailabilities = availabilityRepository.saveAll(availabilities);
+        // Insert in chunks of the JDBC batch size and detach each flushed chunk, so large uploads
+        // become a few batched INSERTs with a small persistence context. Only the new rows are
+        // detached; anything else the caller's transaction loaded stays managed.
+        List<Availability> savedAvailabilities = new ArrayList<>(availabilities.size());
+        for (int i = 0; i < availabilities.size(); i += batchSize) {
+            List<Availability> chunk = availabilities.subList(i, Math.min(i + batchSize, availabilities.size()));
+            List<Availability> saved = availabilityRepository.saveAll(chunk);
+            availabilityRepository.flush();
+            saved.forEach(entityManager::detach);
+            savedAvailabilities.addAll(saved);
+        }
 
         return savedAvailabilities.stream()
                 .map(availability -> modelMapper.map(availability, AvailabilityResponse.class))
@@ -159,11 +193,9 @@ public class AvailabilityService {
         Availability availability = availabilityRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Availability not found with id: " + id));
 
-        // Verify the current user is the service owner
-        if (!availability.getService().getUser().getId().equals(currentUser.getId()) &&
-                !currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You can only update availabilities for your own services");
-        }
+        // Verify the current user is the service owner (the service proxy is not initialized)
+        authorizationPolicy.requireServiceOwnerOrAdmin(currentUser, availability.getService().getId(),
+                "You can only update availabilities for your own services");
 
         // Validate dates
         if (request.getStartDateTime() != null && request.getEndDateTime() != null &&
@@ -197,12 +229,40 @@ public class AvailabilityService {
         Availability availability = availabilityRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Availability not found with id: " + id));
 
-        // Verify the current user is the service owner
-        if (!availability.getService().getUser().getId().equals(currentUser.getId()) &&
-                !currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You can only delete availabilities for your own services");
-        }
+        // Verify the current user is the service owner (the service proxy is not initialized)
+        authorizationPolicy.requireServiceOwnerOrAdmin(currentUser, availability.getService().getId(),
+                "You can only delete availabilities for your own services");
 
         availabilityRepository.delete(availability);
     }
-}
\ No newline at end of file
+
+    // Splits each slot around the held intervals
+    private List<AvailabilityResponse> withoutHeldDates(List<AvailabilityResponse> slots,
+                                                        List<BookingHoldIndex.Hold> holds) {
+        List<BookingHoldIndex.Hold> sorted = new ArrayList<>(holds);
+        sorted.sort(Comparator.comparing(BookingHoldIndex.Hold::startDateTime));
+
+        List<AvailabilityResponse> trimmed = new ArrayList<>();
+        for (AvailabilityResponse slot : slots) {
+            LocalDateTime from = slot.getStartDateTime();
+            for (BookingHoldIndex.Hold hold : sorted) {
+                if (!hold.endDateTime().isAfter(from) || !hold.startDateTime().isBefore(slot.getEndDateTime())) {
+                    continue;
+                }
+                if (hold.startDateTime().isAfter(from)) {
+                    trimmed.add(slotPart(slot, from, hold.startDateTime()));
+                }
+                from = hold.endDateTime();
+            }
+            if (from.isBefore(slot.getEndDateTime())) {
+                trimmed.add(slotPart(slot, from, slot.getEndDateTime()));
+            }
+        }
+        return trimmed;
+    }
+
+    private AvailabilityResponse slotPart(AvailabilityResponse slot, LocalDateTime start, LocalDateTime end) {
+        return new AvailabilityResponse(slot.getId(), slot.getServiceId(), start, end, slot.isAvailable(),
+                slot.getNotes(), slot.getCreatedAt(), slot.getUpdatedAt());
+    }
+}
@@ -0,0 +1,190 @@
+package com.cozystay.service;
+
+import com.cozystay.exception.BadRequestException;
+import com.cozystay.model.Role;
+import com.cozystay.model.User;
+import com.cozystay.security.AuthorizationPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class BookingExportService {
+
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static ExportFormat from(String value) {
+            for (ExportFormat format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new BadRequestException("Unsupported export format: " + value);
+        }
+    }
+
+    // Bookings joined with their payment (if any), same rows as PaymentRepository.findByProviderId
+    private static final String PROVIDER_EXPORT_SQL =
+            "SELECT b.id AS booking_id, s.id AS service_id, s.title AS service_title, " +
+            "b.user_id AS guest_id, b.start_date_time, b.end_date_time, b.guest_count, " +
+            "b.total_price, b.status AS booking_status, b.created_at AS booked_at, " +
+            "p.transaction_id, p.amount AS payment_amount, p.status AS payment_status, " +
+            "p.method AS payment_method, p.paid_at, p.refunded_at " +
+            "FROM bookings b " +
+            "JOIN services s ON s.id = b.service_id " +
+            "LEFT JOIN payments p ON p.booking_id = b.id " +
+            "WHERE s.user_id = ? " +
+            "ORDER BY b.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuthorizationPolicy authorizationPolicy;
+
+    @Value("${export.fetch-size:500}")
+    private int fetchSize;
+
+    public StreamingResponseBody exportProviderBookings(ExportFormat format) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) authentication.getPrincipal();
+
+        // Verify user is a provider
+        authorizationPolicy.requireAnyRole(currentUser, "You don't have permission to export provider bookings",
+                Role.PROVIDER, Role.ADMIN);
+
+        // Resolved here: the body is written later on an async thread without the security context
+        Long providerId = currentUser.getId();
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+            // PostgreSQL only streams with a fetch size inside a transaction (autocommit off)
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+                    connection -> {
+                        PreparedStatement statement = connection.prepareStatement(PROVIDER_EXPORT_SQL,
+                                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        statement.setFetchSize(fetchSize);
+                        statement.setLong(1, providerId);
+                        return statement;
+                    },
+                    new ExportRowWriter(writer, format)));
+
+            writer.flush();
+        };
+    }
+
+    private class ExportRowWriter implements RowCallbackHandler {
+
+        private final Writer writer;
+        private final ExportFormat format;
+        private String[] columns;
+
+        ExportRowWriter(Writer writer, ExportFormat format) {
+            this.writer = writer;
+            this.format = format;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                if (columns == null) {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    columns = new String[metaData.getColumnCount()];
+                    for (int i = 0; i < columns.length; i++) {
+                        columns[i] = metaData.getColumnLabel(i + 1);
+                    }
+                    if (format == ExportFormat.CSV) {
+                        writer.write(String.join(",", columns));
+                        writer.write('\n');
+                    }
+                }
+
+                if (format == ExportFormat.CSV) {
+                    for (int i = 0; i < columns.length; i++) {
+                        if (i > 0) {
+                            writer.write(',');
+                        }
+                        writer.write(csvValue(readValue(rs, i + 1)));
+                    }
+                } else {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int i = 0; i < columns.length; i++) {
+                        row.put(columns[i], readValue(rs, i + 1));
+                    }
+                    writer.write(objectMapper.writeValueAsString(row));
+                }
+                writer.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private Object readValue(ResultSet rs, int index) throws SQLException {
+            Object value = rs.getObject(index);
+            if (value instanceof Timestamp timestamp) {
+                return timestamp.toLocalDateTime().toString();
+            }
+            return value;
+        }
+
+        private String csvValue(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                return "\"" + text.replace("\"", "\"\"") + "\"";
+            }
+            return text;
+        }
+    }
+}
@@ -1,32 +1,67 @@
 package com.cozystay.service;
 
+import com.cozystay.dto.availability.AvailabilityResponse;
 import com.cozystay.dto.booking.BookingDetailResponse;
+import com.cozystay.dto.booking.BookingHoldRequest;
+import com.cozystay.dto.booking.BookingHoldResponse;
 import com.cozystay.dto.booking.BookingRequest;
 import com.cozystay.dto.booking.BookingResponse;
+import com.cozystay.dto.booking.CartCheckoutRequest;
+import com.cozystay.dto.booking.CartCheckoutResponse;
 import com.cozystay.exception.BadRequestException;
+import com.cozystay.exception.ConflictException;
 import com.cozystay.exception.ResourceNotFoundException;
 import com.cozystay.exception.UnauthorizedException;
 import com.cozystay.model.*;
+import com.cozystay.hold.BookingHoldIndex;
+import com.cozystay.paging.PageTotals;
+import com.cozystay.paging.PagingMode;
 import com.cozystay.repository.AvailabilityRepository;
+import com.cozystay.repository.BookingHoldRepository;
 import com.cozystay.repository.BookingRepository;
 import com.cozystay.repository.ServiceRepository;
+import com.cozystay.repository.SlotInventoryRepository;
+import com.cozystay.repository.projection.IdRangeView;
+import com.cozystay.security.AuthorizationPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingService {
 
+    private static final String HELD_MESSAGE = "These dates are being held by another guest; try again in a few minutes";
+
+    // The slot a seat counter belongs to
+    private record SeatSlot(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+    }
+
     @Autowired
     private BookingRepository bookingRepository;
 
@@ -36,29 +71,84 @@ public class BookingService {
     @Autowired
     private AvailabilityRepository availabilityRepository;
 
+    @Autowired
+    private BookingHoldRepository bookingHoldRepository;
+
+    @Autowired
+    private BookingHoldIndex bookingHoldIndex;
+
+    @Autowired
+    private SlotInventoryRepository slotInventoryRepository;
+
+    @Autowired
+    private AvailabilityRuleService availabilityRuleService;
+
+    @Autowired
+    private ProviderAnalyticsService providerAnalyticsService;
+
+    @Autowired
+    private ListViewMapper listViewMapper;
+
+    @Autowired
+    private PageTotals pageTotals;
+
+    @Autowired
+    private AuthorizationPolicy authorizationPolicy;
+
     @Autowired
     private ModelMapper modelMapper;
 
-    public Page<BookingResponse> getCurrentUserBookings(Pageable pageable) {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.expiry.pending-ttl-minutes:1440}")
+    private long pendingTtlMinutes;
+
+    @Value("${booking.holds.ttl-seconds:600}")
+    private long holdTtlSeconds;
+
+    // Also keep holds in booking_holds so every node sees them; memory alone is enough on one node
+    @Value("${booking.holds.durable:true}")
+    private boolean durableHolds;
+
+    @Value("${booking.holds.max-duration-days:30}")
+    private long maxHoldDurationDays;
+
+    @Value("${booking.holds.max-per-user:5}")
+    private int maxHoldsPerUser;
+
+    @Value("${booking.cart.max-items:10}")
+    private int maxCartItems;
+
+    private Timer cartLockWaitTimer;
+
+    @PostConstruct
+    public void init() {
+        cartLockWaitTimer = Timer.builder("cozystay.bookings.cart.lock.wait")
+                .description("Time a cart checkout waits for its service row locks")
+                .register(meterRegistry);
+    }
+
+    public Slice<BookingResponse> getCurrentUserBookings(Pageable pageable, PagingMode mode) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
 
-        Page<Booking> bookings = bookingRepository.findByUserId(currentUser.getId(), pageable);
-        return bookings.map(booking -> modelMapper.map(booking, BookingResponse.class));
+        Long userId = currentUser.getId();
+        return pageTotals.complete(bookingRepository.findByUserId(userId, pageable).map(listViewMapper::toBookingResponse),
+                mode, "bookings:user:" + userId, () -> bookingRepository.countByUserId(userId));
     }
 
-    public Page<BookingResponse> getBookingsForProvider(Pageable pageable) {
+    public Slice<BookingResponse> getBookingsForProvider(Pageable pageable, PagingMode mode) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
 
         // Verify user is a provider
-        if (!currentUser.getAuthorities().stream().anyMatch(a ->
-                a.getAuthority().equals("ROLE_PROVIDER") || a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to view provider bookings");
-        }
+        authorizationPolicy.requireAnyRole(currentUser, "You don't have permission to view provider bookings",
+                Role.PROVIDER, Role.ADMIN);
 
-        Page<Booking> bookings = bookingRepository.findByProviderId(currentUser.getId(), pageable);
-        return bookings.map(booking -> modelMapper.map(booking, BookingResponse.class));
+        Long providerId = currentUser.getId();
+        return pageTotals.complete(bookingRepository.findByProviderId(providerId, pageable).map(listViewMapper::toBookingResponse),
+                mode, "bookings:provider:" + providerId, () -> bookingRepository.countByProviderId(providerId));
     }
 
     public BookingDetailResponse getBookingById(Long id) {
@@ -69,10 +159,9 @@ public class BookingService {
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + id));
 
         // Verify user is authorized to view this booking
-        boolean isAdmin = currentUser.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        boolean isAdmin = authorizationPolicy.isAdmin(currentUser);
         boolean isBookingUser = booking.getUser().getId().equals(currentUser.getId());
-        boolean isServiceProvider = booking.getService().getUser().getId().equals(currentUser.getId());
+        boolean isServiceProvider = authorizationPolicy.ownsService(currentUser, booking.getService().getId());
 
         if (!isAdmin && !isBookingUser && !isServiceProvider) {
             throw new UnauthorizedException("You don't have permission to view this booking");
@@ -89,10 +178,9 @@ public class BookingService {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + id));
 
-        boolean isAdmin = currentUser.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        boolean isAdmin = authorizationPolicy.isAdmin(currentUser);
         boolean isBookingUser = booking.getUser().getId().equals(currentUser.getId());
-        boolean isServiceProvider = booking.getService().getUser().getId().equals(currentUser.getId());
+        boolean isServiceProvider = authorizationPolicy.ownsService(currentUser, booking.getService().getId());
 
         // Validate permissions based on the requested status change
         switch (status) {
@@ -159,33 +247,61 @@ public class BookingService {
                 throw new BadRequestException("Invalid booking status");
         }
 
+        boolean wasCancelled = isCancelled(booking.getStatus());
+
+        if (wasCancelled != isCancelled(status) && booking.getService().isSoldBySeat()) {
+            Long serviceId = booking.getService().getId();
+            if (isCancelled(status)) {
+                slotInventoryRepository.release(serviceId, booking.getStartDateTime(),
+                        booking.getEndDateTime(), seatsFor(booking.getGuestCount()));
+            } else {
+                SeatSlot slot = findSeatSlot(serviceId, booking.getStartDateTime(), booking.getEndDateTime(),
+                        availabilityRepository.findAvailableSlotsForServiceBetweenDates(serviceId,
+                                booking.getStartDateTime(), booking.getEndDateTime()));
+                if (slot == null) {
+                    throw new BadRequestException("The booked slot is no longer available");
+                }
+                reserveSeats(booking.getService(), slot, seatsFor(booking.getGuestCount()));
+            }
+        }
+
         booking.setStatus(status);
         Booking updatedBooking = bookingRepository.save(booking);
+
+        if (wasCancelled != isCancelled(status)) {
+            providerAnalyticsService.recordBookingCancellation(updatedBooking, isCancelled(status));
+        }
+
         return modelMapper.map(updatedBooking, BookingDetailResponse.class);
     }
 
-    public Page<BookingResponse> filterBookingsByStatus(BookingStatus status, Pageable pageable) {
+    public Slice<BookingResponse> filterBookingsByStatus(BookingStatus status, Pageable pageable, PagingMode mode) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
 
-        Page<Booking> bookings = bookingRepository.findByUserIdAndStatus(currentUser.getId(), status, pageable);
-        return bookings.map(booking -> modelMapper.map(booking, BookingResponse.class));
+        Long userId = currentUser.getId();
+        return pageTotals.complete(bookingRepository.findByUserIdAndStatus(userId, status, pageable)
+                        .map(listViewMapper::toBookingResponse),
+                mode, "bookings:user:" + userId + ":" + status,
+                () -> bookingRepository.countByUserIdAndStatus(userId, status));
     }
 
-    public Page<BookingResponse> getProviderBookingsByStatus(BookingStatus status, Pageable pageable) {
+    public Slice<BookingResponse> getProviderBookingsByStatus(BookingStatus status, Pageable pageable, PagingMode mode) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
 
         // Verify user is a provider
-        if (!currentUser.getAuthorities().stream().anyMatch(a ->
-                a.getAuthority().equals("ROLE_PROVIDER") || a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to view provider bookings");
-        }
-
-        Page<Booking> bookings = bookingRepository.findByProviderIdAndStatus(currentUser.getId(), status, pageable);
-        return bookings.map(booking -> modelMapper.map(booking, BookingResponse.class));
+        authorizationPolicy.requireAnyRole(currentUser, "You don't have permission to view provider bookings",
+                Role.PROVIDER, Role.ADMIN);
+
+        Long providerId = currentUser.getId();
+        return pageTotals.complete(bookingRepository.findByProviderIdAndStatus(providerId, status, pageable)
+                        .map(listViewMapper::toBookingResponse),
+                mode, "bookings:provider:" + providerId + ":" + status,
+                () -> bookingRepository.countByProviderIdAndStatus(providerId, status));
     }
 
+    @Transactional
     public BookingDetailResponse createBooking(BookingRequest bookingRequest) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
@@ -193,37 +309,323 @@ public class BookingService {
         com.cozystay.model.Service service = serviceRepository.findById(bookingRequest.getServiceId())
                 .orElseThrow(() -> new ResourceNotFoundException("Service not found with id: " + bookingRequest.getServiceId()));
 
-        // Check if service is active
+        validateBookingRequest(service, bookingRequest);
+
+        SeatSlot seatSlot = null;
+        if (service.isSoldBySeat()) {
+            // Other guests in the same slot are fine; the slot's seat counter below decides
+            seatSlot = requireWholeSeatSlot(service.getId(), bookingRequest.getStartDateTime(),
+                    bookingRequest.getEndDateTime(), availabilityRepository.findAvailableSlotsForServiceBetweenDates(
+                            service.getId(), bookingRequest.getStartDateTime(), bookingRequest.getEndDateTime()));
+        } else {
+            // Held until commit, so no other hold or booking for this service can slip in after the checks
+            serviceRepository.lockById(service.getId());
+            requireNotHeldByOther(service.getId(), bookingRequest.getStartDateTime(),
+                    bookingRequest.getEndDateTime(), currentUser.getId());
+            requireBookableSlot(service.getId(), bookingRequest.getStartDateTime(), bookingRequest.getEndDateTime());
+        }
+
+        BigDecimal totalPrice = calculateTotalPrice(service, bookingRequest);
+
+        if (seatSlot != null) {
+            reserveSeats(service, seatSlot, seatsFor(bookingRequest.getGuestCount()));
+        }
+
+        // Create booking
+        Booking booking = Booking.builder()
+                .user(currentUser)
+                .service(service)
+                .startDateTime(bookingRequest.getStartDateTime())
+                .endDateTime(bookingRequest.getEndDateTime())
+                .totalPrice(totalPrice)
+                .guestCount(bookingRequest.getGuestCount())
+                .status(BookingStatus.PENDING)
+                .specialRequests(bookingRequest.getSpecialRequests())
+                .build();
+
+        Booking savedBooking = bookingRepository.save(booking);
+        providerAnalyticsService.recordBookingCreated(savedBooking);
+        if (!service.isSoldBySeat()) {
+            releaseOwnHolds(service.getId(), currentUser.getId(),
+                    bookingRequest.getStartDateTime(), bookingRequest.getEndDateTime());
+        }
+
+        return modelMapper.map(savedBooking, BookingDetailResponse.class);
+    }
+
+    /**
+     * Books every item in the cart in one transaction; any failure rolls back all of them.
+     * Items are processed in (service id, start, end) order. Each checkout takes its locks in the
+     * same sequence: service rows by id, then seat counters by slot, then the booking and
+     * analytics rows. Carts that share services therefore queue behind each other instead of
+     * deadlocking.
+     */
+    @Transactional
+    public CartCheckoutResponse checkoutCart(CartCheckoutRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) authentication.getPrincipal();
+
+        if (request.getItems().size() > maxCartItems) {
+            throw new BadRequestException("A cart can hold at most " + maxCartItems + " bookings");
+        }
+
+        List<BookingRequest> items = new ArrayList<>(request.getItems());
+        items.sort(Comparator.comparing(BookingRequest::getServiceId)
+                .thenComparing(BookingRequest::getStartDateTime)
+                .thenComparing(BookingRequest::getEndDateTime));
+
+        Set<Long> serviceIds = items.stream().map(BookingRequest::getServiceId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, com.cozystay.model.Service> services = serviceRepository.findAllById(serviceIds).stream()
+                .collect(Collectors.toMap(com.cozystay.model.Service::getId, Function.identity()));
+
+        LocalDateTime windowStart = null;
+        LocalDateTime windowEnd = null;
+        for (BookingRequest item : items) {
+            com.cozystay.model.Service service = services.get(item.getServiceId());
+            if (service == null) {
+                throw new ResourceNotFoundException("Service not found with id: " + item.getServiceId());
+            }
+            validateBookingRequest(service, item);
+            if (windowStart == null || item.getStartDateTime().isBefore(windowStart)) {
+                windowStart = item.getStartDateTime();
+            }
+            if (windowEnd == null || item.getEndDateTime().isAfter(windowEnd)) {
+                windowEnd = item.getEndDateTime();
+            }
+        }
+
+        List<Long> exclusiveIds = serviceIds.stream()
+                .filter(id -> !services.get(id).isSoldBySeat())
+                .collect(Collectors.toList());
+        if (!exclusiveIds.isEmpty()) {
+            cartLockWaitTimer.record(() -> serviceRepository.lockAllByIdIn(exclusiveIds));
+        }
+
+        // One query each for slots, bookings and holds across the cart instead of a pair per item
+        List<Availability> slots = availabilityRepository.findAvailableSlotsForServicesBetweenDates(
+                serviceIds, windowStart, windowEnd);
+        List<Booking> booked = exclusiveIds.isEmpty()
+                ? List.of()
+                : bookingRepository.findActiveBookingsForServicesBetweenDates(exclusiveIds, windowStart, windowEnd);
+        List<BookingHold> holds = durableHolds && !exclusiveIds.isEmpty()
+                ? bookingHoldRepository.findActiveHeldByOthers(exclusiveIds, currentUser.getId(), LocalDateTime.now())
+                : List.of();
+
+        Map<Long, LocalDateTime> latestEndInCart = new HashMap<>();
+        Map<BookingRequest, SeatSlot> seatSlots = new IdentityHashMap<>();
+        for (BookingRequest item : items) {
+            com.cozystay.model.Service service = services.get(item.getServiceId());
+            LocalDateTime start = item.getStartDateTime();
+            LocalDateTime end = item.getEndDateTime();
+
+            if (service.isSoldBySeat()) {
+                seatSlots.put(item, requireWholeSeatSlot(service.getId(), start, end, slots));
+                continue;
+            }
+
+            boolean hasSlot = slots.stream().anyMatch(slot -> slot.getService().getId().equals(service.getId()) &&
+                    !slot.getStartDateTime().isAfter(end) && !slot.getEndDateTime().isBefore(start));
+            // Recurring rules are only expanded for items without a one-off slot
+            if (!hasSlot && !availabilityRuleService.hasAvailableOccurrence(service.getId(), start, end)) {
+                throw new BadRequestException("Service " + service.getTitle() + " is not available for the requested dates");
+            }
+
+            if (bookingHoldIndex.isHeldByOther(service.getId(), start, end, currentUser.getId()) ||
+                    holds.stream().anyMatch(hold -> hold.getServiceId().equals(service.getId()) &&
+                            hold.getStartDateTime().isBefore(end) && hold.getEndDateTime().isAfter(start))) {
+                throw new ConflictException(HELD_MESSAGE);
+            }
+
+            // Same inclusive overlap as findOverlappingBookings
+            if (booked.stream().anyMatch(booking -> booking.getService().getId().equals(service.getId()) &&
+                    !booking.getStartDateTime().isAfter(end) && !booking.getEndDateTime().isBefore(start))) {
+                throw new BadRequestException("Service " + service.getTitle() + " is already booked for the requested dates");
+            }
+
+            LocalDateTime latestEnd = latestEndInCart.get(service.getId());
+            if (latestEnd != null && !latestEnd.isBefore(start)) {
+                throw new BadRequestException("The cart books " + service.getTitle() + " more than once for overlapping dates");
+            }
+            latestEndInCart.put(service.getId(), latestEnd != null && latestEnd.isAfter(end) ? latestEnd : end);
+        }
+
+        Map<BookingRequest, BigDecimal> prices = new IdentityHashMap<>();
+        for (BookingRequest item : items) {
+            prices.put(item, calculateTotalPrice(services.get(item.getServiceId()), item));
+        }
+
+        for (BookingRequest item : items) {
+            SeatSlot seatSlot = seatSlots.get(item);
+            if (seatSlot != null) {
+                reserveSeats(services.get(item.getServiceId()), seatSlot, seatsFor(item.getGuestCount()));
+            }
+        }
+
+        Map<BookingRequest, BookingDetailResponse> created = new IdentityHashMap<>();
+        BigDecimal cartTotal = BigDecimal.ZERO;
+        for (BookingRequest item : items) {
+            com.cozystay.model.Service service = services.get(item.getServiceId());
+            Booking booking = Booking.builder()
+                    .user(currentUser)
+                    .service(service)
+                    .startDateTime(item.getStartDateTime())
+                    .endDateTime(item.getEndDateTime())
+                    .totalPrice(prices.get(item))
+                    .guestCount(item.getGuestCount())
+                    .status(BookingStatus.PENDING)
+                    .specialRequests(item.getSpecialRequests())
+                    .build();
+
+            Booking savedBooking = bookingRepository.save(booking);
+            providerAnalyticsService.recordBookingCreated(savedBooking);
+            if (!service.isSoldBySeat()) {
+                releaseOwnHolds(service.getId(), currentUser.getId(), item.getStartDateTime(), item.getEndDateTime());
+            }
+
+            created.put(item, modelMapper.map(savedBooking, BookingDetailResponse.class));
+            cartTotal = cartTotal.add(savedBooking.getTotalPrice());
+        }
+
+        List<BookingDetailResponse> bookings = request.getItems().stream()
+                .map(created::get)
+                .collect(Collectors.toList());
+        return new CartCheckoutResponse(bookings, cartTotal);
+    }
+
+    /**
+     * Reserves the dates for the current user for booking.holds.ttl-seconds, so checkout cannot
+     * lose them to another guest. The hold lapses on its own; creating the booking releases it.
+     */
+    @Transactional
+    public BookingHoldResponse placeHold(BookingHoldRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) authentication.getPrincipal();
+
+        com.cozystay.model.Service service = serviceRepository.findById(request.getServiceId())
+                .orElseThrow(() -> new ResourceNotFoundException("Service not found with id: " + request.getServiceId()));
+
         if (!service.isActive()) {
             throw new BadRequestException("Service is not available for booking");
         }
 
-        // Validate dates
-        if (bookingRequest.getStartDateTime().isBefore(LocalDateTime.now())) {
-            throw new BadRequestException("Booking start date cannot be in the past");
+        if (service.isSoldBySeat()) {
+            throw new BadRequestException("Seats are reserved when the booking is created; no hold is needed");
         }
 
-        if (bookingRequest.getEndDateTime().isBefore(bookingRequest.getStartDateTime())) {
-            throw new BadRequestException("Booking end date must be after start date");
+        if (!request.getEndDateTime().isAfter(request.getStartDateTime())) {
+            throw new BadRequestException("Hold end date must be after start date");
         }
 
-        // Check if the service is available for the requested dates
-        List<Availability> availabilities = availabilityRepository.findAvailableSlotsForServiceBetweenDates(
-                service.getId(), bookingRequest.getStartDateTime(), bookingRequest.getEndDateTime());
+        if (request.getStartDateTime().isBefore(LocalDateTime.now())) {
+            throw new BadRequestException("Hold start date cannot be in the past");
+        }
 
-        if (availabilities.isEmpty()) {
-            throw new BadRequestException("Service is not available for the requested dates");
+        if (request.getEndDateTime().isAfter(request.getStartDateTime().plusDays(maxHoldDurationDays))) {
+            throw new BadRequestException("Holds cannot be longer than " + maxHoldDurationDays + " days");
         }
 
-        // Check for overlapping bookings
-        List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(
-                service.getId(), bookingRequest.getStartDateTime(), bookingRequest.getEndDateTime());
+        Long serviceId = service.getId();
+        Long userId = currentUser.getId();
 
-        if (!overlappingBookings.isEmpty()) {
-            throw new BadRequestException("Service is already booked for the requested dates");
+        // Counted before the service lock, so concurrent requests by one guest may overshoot by a few
+        long activeHolds = durableHolds
+                ? bookingHoldRepository.countActiveForUser(userId, LocalDateTime.now())
+                : bookingHoldIndex.countActiveForUser(userId);
+        if (activeHolds >= maxHoldsPerUser) {
+            throw new BadRequestException("You cannot hold more than " + maxHoldsPerUser + " stays at once");
+        }
+
+        // Turned away here without touching the database when this node already knows the dates are held
+        if (bookingHoldIndex.isHeldByOther(serviceId, request.getStartDateTime(), request.getEndDateTime(), userId)) {
+            throw new ConflictException(HELD_MESSAGE);
+        }
+
+        serviceRepository.lockById(serviceId);
+        requireNotHeldByOther(serviceId, request.getStartDateTime(), request.getEndDateTime(), userId);
+        requireBookableSlot(serviceId, request.getStartDateTime(), request.getEndDateTime());
+
+        BookingHoldIndex.Hold hold = new BookingHoldIndex.Hold(UUID.randomUUID().toString(), userId,
+                request.getStartDateTime(), request.getEndDateTime(),
+                LocalDateTime.now().plusSeconds(holdTtlSeconds));
+        if (!bookingHoldIndex.tryPlace(serviceId, hold)) {
+            throw new ConflictException(HELD_MESSAGE);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    bookingHoldIndex.release(hold.token(), userId);
+                }
+            }
+        });
+
+        if (durableHolds) {
+            bookingHoldRepository.save(BookingHold.builder()
+                    .holdToken(hold.token())
+                    .serviceId(serviceId)
+                    .userId(userId)
+                    .startDateTime(hold.startDateTime())
+                    .endDateTime(hold.endDateTime())
+                    .expiresAt(hold.expiresAt())
+                    .build());
+        }
+
+        return new BookingHoldResponse(hold.token(), serviceId, hold.startDateTime(), hold.endDateTime(),
+                hold.expiresAt());
+    }
+
+    @Transactional
+    public void releaseHold(String holdToken) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) authentication.getPrincipal();
+
+        boolean released = bookingHoldIndex.release(holdToken, currentUser.getId());
+        if (durableHolds) {
+            released |= bookingHoldRepository.deleteByHoldTokenAndUserId(holdToken, currentUser.getId()) > 0;
+        }
+
+        if (!released) {
+            throw new ResourceNotFoundException("Hold not found: " + holdToken);
+        }
+    }
+
+    // Expired holds already stopped counting; this only reclaims the rows
+    @Transactional
+    public int purgeExpiredHolds() {
+        return durableHolds ? bookingHoldRepository.deleteExpired(LocalDateTime.now()) : 0;
+    }
+
+    /**
+     * Cancels up to {@code limit} bookings that stayed PENDING past booking.expiry.pending-ttl-minutes
+     * (or whose start time has passed) so they stop blocking the slot. Returns the number expired.
+     */
+    @Transactional
+    public int expireStalePendingBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> expired = bookingRepository.expireStalePending(now.minusMinutes(pendingTtlMinutes), now,
+                "Expired: not confirmed by the provider in time", limit);
+        if (!expired.isEmpty()) {
+            // Still locked by the expiry above, so no status change can slip in between
+            slotInventoryRepository.releaseForBookings(expired);
         }
+        return expired.size();
+    }
 
-        // Calculate total price based on service pricing and duration
+    @Transactional(readOnly = true)
+    public IdRangeView findEndedConfirmedIdRange(LocalDateTime now) {
+        return bookingRepository.findEndedConfirmedIdRange(now);
+    }
+
+    // Same rule as a manual COMPLETED transition: the stay must have ended
+    @Transactional
+    public int completeEndedInRange(long fromId, long toId, LocalDateTime now) {
+        return bookingRepository.completeEndedInRange(fromId, toId, now);
+    }
+
+    // Total price based on service pricing and duration
+    private BigDecimal calculateTotalPrice(com.cozystay.model.Service service, BookingRequest bookingRequest) {
         BigDecimal totalPrice;
         Duration duration;
 
@@ -268,19 +670,120 @@ public class BookingService {
                 break;
         }
 
-        // Create booking
-        Booking booking = Booking.builder()
-                .user(currentUser)
-                .service(service)
-                .startDateTime(bookingRequest.getStartDateTime())
-                .endDateTime(bookingRequest.getEndDateTime())
-                .totalPrice(totalPrice)
-                .guestCount(bookingRequest.getGuestCount())
-                .status(BookingStatus.PENDING)
-                .specialRequests(bookingRequest.getSpecialRequests())
-                .build();
+        return totalPrice;
+    }
 
-        Booking savedBooking = bookingRepository.save(booking);
-        return modelMapper.map(savedBooking, BookingDetailResponse.class);
+    private void validateBookingRequest(com.cozystay.model.Service service, BookingRequest bookingRequest) {
+        // Check if service is active
+        if (!service.isActive()) {
+            throw new BadRequestException("Service is not available for booking");
+        }
+
+        // Validate dates
+        if (bookingRequest.getStartDateTime().isBefore(LocalDateTime.now())) {
+            throw new BadRequestException("Booking start date cannot be in the past");
+        }
+
+        if (bookingRequest.getEndDateTime().isBefore(bookingRequest.getStartDateTime())) {
+            throw new BadRequestException("Booking end date must be after start date");
+        }
+    }
+
+    private void requireNotHeldByOther(Long serviceId, LocalDateTime startDate, LocalDateTime endDate, Long userId) {
+        if (bookingHoldIndex.isHeldByOther(serviceId, startDate, endDate, userId) ||
+                (durableHolds && bookingHoldRepository.existsHeldByOther(serviceId, startDate, endDate, userId,
+                        LocalDateTime.now()))) {
+            throw new ConflictException(HELD_MESSAGE);
+        }
+    }
+
+    private void requireAvailable(Long serviceId, LocalDateTime startDate, LocalDateTime endDate) {
+        // Check if the service is available for the requested dates
+        List<Availability> availabilities = availabilityRepository.findAvailableSlotsForServiceBetweenDates(
+                serviceId, startDate, endDate);
+
+        if (availabilities.isEmpty() && !availabilityRuleService.hasAvailableOccurrence(
+                serviceId, startDate, endDate)) {
+            throw new BadRequestException("Service is not available for the requested dates");
+        }
+    }
+
+    private void requireBookableSlot(Long serviceId, LocalDateTime startDate, LocalDateTime endDate) {
+        requireAvailable(serviceId, startDate, endDate);
+
+        // Check for overlapping bookings
+        List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(
+                serviceId, startDate, endDate);
+
+        if (!overlappingBookings.isEmpty()) {
+            throw new BadRequestException("Service is already booked for the requested dates");
+        }
+    }
+
+    // The one-off slot or rule occurrence the window falls in, or null if there is none
+    private SeatSlot findSeatSlot(Long serviceId, LocalDateTime startDate, LocalDateTime endDate,
+                                  List<Availability> oneOffSlots) {
+        for (Availability slot : oneOffSlots) {
+            if (slot.getService().getId().equals(serviceId) &&
+                    !slot.getStartDateTime().isAfter(startDate) && !slot.getEndDateTime().isBefore(endDate)) {
+                return new SeatSlot(slot.getStartDateTime(), slot.getEndDateTime());
+            }
+        }
+        for (AvailabilityResponse occurrence : availabilityRuleService.getAvailableOccurrences(
+                serviceId, startDate, endDate)) {
+            if (!occurrence.getStartDateTime().isAfter(startDate) && !occurrence.getEndDateTime().isBefore(endDate)) {
+                return new SeatSlot(occurrence.getStartDateTime(), occurrence.getEndDateTime());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Seat counters are keyed on the slot's own times, so a booking has to cover exactly one slot.
+     * A shifted window would otherwise start a second counter at full capacity for the same slot.
+     */
+    private SeatSlot requireWholeSeatSlot(Long serviceId, LocalDateTime startDate, LocalDateTime endDate,
+                                          List<Availability> oneOffSlots) {
+        SeatSlot slot = findSeatSlot(serviceId, startDate, endDate, oneOffSlots);
+        if (slot == null) {
+            throw new BadRequestException("Service is not available for the requested dates");
+        }
+        if (!slot.startDateTime().equals(startDate) || !slot.endDateTime().equals(endDate)) {
+            throw new BadRequestException("Seats are sold for whole slots; book from " + slot.startDateTime() +
+                    " to " + slot.endDateTime());
+        }
+        return slot;
+    }
+
+    private void reserveSeats(com.cozystay.model.Service service, SeatSlot slot, int seats) {
+        if (seats > service.getCapacity()) {
+            throw new BadRequestException("This service takes at most " + service.getCapacity() + " guests per slot");
+        }
+
+        slotInventoryRepository.createIfMissing(service.getId(), slot.startDateTime(), slot.endDateTime(),
+                service.getCapacity());
+        if (slotInventoryRepository.reserve(service.getId(), slot.startDateTime(), slot.endDateTime(), seats) == 0) {
+            throw new ConflictException("Not enough seats left for the requested slot");
+        }
+    }
+
+    private int seatsFor(Integer guestCount) {
+        return guestCount == null ? 1 : guestCount;
+    }
+
+    private void releaseOwnHolds(Long serviceId, Long userId, LocalDateTime startDate, LocalDateTime endDate) {
+        if (durableHolds) {
+            bookingHoldRepository.deleteOverlappingForUser(serviceId, userId, startDate, endDate);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bookingHoldIndex.releaseOverlapping(serviceId, userId, startDate, endDate);
+            }
+        });
+    }
+
+    private boolean isCancelled(BookingStatus status) {
+        return status == BookingStatus.CANCELLED_BY_USER || status == BookingStatus.CANCELLED_BY_PROVIDER;
     }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.cozystay.service;
+
+import com.cozystay.dto.cache.CacheRegionStatsResponse;
+import com.cozystay.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+public class CacheAdminService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public List<CacheRegionStatsResponse> getRegionStats() {
+        Statistics statistics = sessionFactory().getStatistics();
+
+        List<CacheRegionStatsResponse> regions = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                regions.add(new CacheRegionStatsResponse(region, regionStatistics.getHitCount(),
+                        regionStatistics.getMissCount(), regionStatistics.getPutCount(),
+                        regionStatistics.getElementCountInMemory()));
+            }
+        }
+        return regions;
+    }
+
+    public void evictRegion(String region) {
+        SessionFactory sessionFactory = sessionFactory();
+        if (!Arrays.asList(sessionFactory.getStatistics().getSecondLevelCacheRegionNames()).contains(region)) {
+            throw new ResourceNotFoundException("Cache region not found: " + region);
+        }
+        sessionFactory.getCache().evictRegion(region);
+    }
+
+    public void evictAll() {
+        sessionFactory().getCache().evictAllRegions();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
@@ -4,10 +4,10 @@ import com.cozystay.dto.category.CategoryRequest;
 import com.cozystay.dto.category.CategoryResponse;
 import com.cozystay.exception.ResourceAlreadyExistsException;
 import com.cozystay.exception.ResourceNotFoundException;
-import com.cozystay.exception.UnauthorizedException;
 import com.cozystay.model.Category;
 import com.cozystay.model.User;
 import com.cozystay.repository.CategoryRepository;
+import com.cozystay.security.AuthorizationPolicy;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
@@ -24,9 +24,13 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private AuthorizationPolicy authorizationPolicy;
+
     @Autowired
     private ModelMapper modelMapper;
 
+    @Transactional(readOnly = true)
     public List<CategoryResponse> getAllCategories() {
         List<Category> categories = categoryRepository.findByIsActiveTrue();
         return categories.stream()
@@ -34,14 +38,13 @@ public class CategoryService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<CategoryResponse> getAllCategoriesAdmin() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
 
         // Only admins can view all categories including inactive ones
-        if (!currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to view all categories");
-        }
+        authorizationPolicy.requireAdmin(currentUser, "You don't have permission to view all categories");
 
         List<Category> categories = categoryRepository.findAll();
         return categories.stream()
@@ -49,6 +52,7 @@ public class CategoryService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public CategoryResponse getCategoryById(Long id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
@@ -61,9 +65,7 @@ public class CategoryService {
         User currentUser = (User) authentication.getPrincipal();
 
         // Only admins can create categories
-        if (!currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to create categories");
-        }
+        authorizationPolicy.requireAdmin(currentUser, "You don't have permission to create categories");
 
         // Check if category with same name already exists
         if (categoryRepository.existsByNameIgnoreCase(categoryRequest.getName())) {
@@ -87,9 +89,7 @@ public class CategoryService {
         User currentUser = (User) authentication.getPrincipal();
 
         // Only admins can update categories
-        if (!currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to update categories");
-        }
+        authorizationPolicy.requireAdmin(currentUser, "You don't have permission to update categories");
 
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
@@ -123,9 +123,7 @@ public class CategoryService {
         User currentUser = (User) authentication.getPrincipal();
 
         // Only admins can toggle category status
-        if (!currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to toggle category status");
-        }
+        authorizationPolicy.requireAdmin(currentUser, "You don't have permission to toggle category status");
 
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
@@ -141,9 +139,7 @@ public class CategoryService {
         User currentUser = (User) authentication.getPrincipal();
 
         // Only admins can delete categories
-        if (!currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to delete categories");
-        }
+        authorizationPolicy.requireAdmin(currentUser, "You don't have permission to delete categories");
 
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
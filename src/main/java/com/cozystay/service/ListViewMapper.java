@@ -0,0 +1,123 @@
+package com.cozystay.service;
+
+import com.cozystay.dto.booking.BookingResponse;
+import com.cozystay.dto.category.CategoryResponse;
+import com.cozystay.dto.location.LocationResponse;
+import com.cozystay.dto.review.ReviewResponse;
+import com.cozystay.dto.service.ServiceResponse;
+import com.cozystay.dto.user.UserResponse;
+import com.cozystay.repository.projection.BookingListView;
+import com.cozystay.repository.projection.ReviewListView;
+import com.cozystay.repository.projection.ServiceListView;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Builds list DTOs straight from repository projections. Nested objects carry only the
+// fields a list row shows; detail endpoints still return the full DTOs.
+@Component
+public class ListViewMapper {
+
+    public ServiceResponse toServiceResponse(ServiceListView view, CategoryResponse category, LocationResponse location) {
+        ServiceResponse response = new ServiceResponse();
+        response.setId(view.getId());
+        response.setTitle(view.getTitle());
+        response.setType(view.getType());
+        response.setPrice(view.getPrice());
+        response.setPricingUnit(view.getPricingUnit());
+        response.setCapacity(view.getCapacity());
+        response.setThumbnailUrl(view.getThumbnailUrl());
+        response.setAddress(view.getAddress());
+        response.setLatitude(view.getLatitude());
+        response.setLongitude(view.getLongitude());
+        response.setAvgRating(view.getAvgRating());
+        response.setReviewCount(view.getReviewCount());
+        response.setVerified(Boolean.TRUE.equals(view.getVerified()));
+
+        response.setCategory(category);
+        response.setLocation(location);
+
+        UserResponse provider = user(view.getProviderId(), view.getProviderUsername(),
+                view.getProviderFirstName(), view.getProviderLastName(), view.getProviderProfileImage());
+        flags(provider, view.getProviderIsProvider(), view.getProviderVerified(), view.getProviderActive());
+        response.setUser(provider);
+
+        return response;
+    }
+
+    public BookingResponse toBookingResponse(BookingListView view) {
+        BookingResponse response = new BookingResponse();
+        response.setId(view.getId());
+        response.setStartDateTime(view.getStartDateTime());
+        response.setEndDateTime(view.getEndDateTime());
+        response.setTotalPrice(view.getTotalPrice());
+        response.setGuestCount(view.getGuestCount());
+        response.setStatus(view.getStatus());
+        response.setCreatedAt(view.getCreatedAt());
+        UserResponse guest = user(view.getUserId(), view.getUserUsername(),
+                view.getUserFirstName(), view.getUserLastName(), view.getUserProfileImage());
+        flags(guest, view.getUserIsProvider(), view.getUserVerified(), view.getUserActive());
+        response.setUser(guest);
+
+        ServiceResponse service = new ServiceResponse();
+        service.setId(view.getServiceId());
+        service.setTitle(view.getServiceTitle());
+        service.setType(view.getServiceType());
+        service.setPrice(view.getServicePrice());
+        service.setPricingUnit(view.getServicePricingUnit());
+        service.setThumbnailUrl(view.getServiceThumbnailUrl());
+        service.setAddress(view.getServiceAddress());
+        service.setVerified(Boolean.TRUE.equals(view.getServiceVerified()));
+        UserResponse provider = user(view.getProviderId(), null, view.getProviderFirstName(), view.getProviderLastName(), null);
+        flags(provider, view.getProviderIsProvider(), view.getProviderVerified(), view.getProviderActive());
+        service.setUser(provider);
+        response.setService(service);
+
+        return response;
+    }
+
+    public ReviewResponse toReviewResponse(ReviewListView view, List<String> images) {
+        ReviewResponse response = new ReviewResponse();
+        response.setId(view.getId());
+        response.setBookingId(view.getBookingId());
+        response.setRating(view.getRating());
+        response.setComment(view.getComment());
+        response.setVisible(Boolean.TRUE.equals(view.getVisible()));
+        response.setOwnerReply(view.getOwnerReply());
+        response.setOwnerRepliedAt(view.getOwnerRepliedAt());
+        response.setCreatedAt(view.getCreatedAt());
+        response.setUpdatedAt(view.getUpdatedAt());
+        response.setImages(images);
+        UserResponse reviewer = user(view.getUserId(), view.getUserUsername(),
+                view.getUserFirstName(), view.getUserLastName(), view.getUserProfileImage());
+        flags(reviewer, view.getUserIsProvider(), view.getUserVerified(), view.getUserActive());
+        response.setUser(reviewer);
+
+        ServiceResponse service = new ServiceResponse();
+        service.setId(view.getServiceId());
+        service.setTitle(view.getServiceTitle());
+        service.setType(view.getServiceType());
+        service.setThumbnailUrl(view.getServiceThumbnailUrl());
+        service.setVerified(Boolean.TRUE.equals(view.getServiceVerified()));
+        response.setService(service);
+
+        return response;
+    }
+
+    private UserResponse user(Long id, String username, String firstName, String lastName, String profileImage) {
+        UserResponse user = new UserResponse();
+        user.setId(id);
+        user.setUsername(username);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setProfileImage(profileImage);
+        return user;
+    }
+
+    // The DTO flags are primitives, so they are always selected rather than left to default to false
+    private void flags(UserResponse user, Boolean provider, Boolean verified, Boolean active) {
+        user.setProvider(Boolean.TRUE.equals(provider));
+        user.setVerified(Boolean.TRUE.equals(verified));
+        user.setActive(Boolean.TRUE.equals(active));
+    }
+}
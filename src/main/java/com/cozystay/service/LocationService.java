@@ -4,10 +4,10 @@ import com.cozystay.dto.location.LocationRequest;
 import com.cozystay.dto.location.LocationResponse;
 import com.cozystay.exception.ResourceAlreadyExistsException;
 import com.cozystay.exception.ResourceNotFoundException;
-import com.cozystay.exception.UnauthorizedException;
 import com.cozystay.model.Location;
 import com.cozystay.model.User;
 import com.cozystay.repository.LocationRepository;
+import com.cozystay.security.AuthorizationPolicy;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -27,9 +27,13 @@ public class LocationService {
     @Autowired
     private LocationRepository locationRepository;
 
+    @Autowired
+    private AuthorizationPolicy authorizationPolicy;
+
     @Autowired
     private ModelMapper modelMapper;
 
+    @Transactional(readOnly = true)
     public List<LocationResponse> getAllLocations() {
         List<Location> locations = locationRepository.findByIsActiveTrue();
         return locations.stream()
@@ -37,14 +41,13 @@ public class LocationService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<LocationResponse> getAllLocationsAdmin() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
 
         // Only admins can view all locations including inactive ones
-        if (!currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to view all locations");
-        }
+        authorizationPolicy.requireAdmin(currentUser, "You don't have permission to view all locations");
 
         List<Location> locations = locationRepository.findAll();
         return locations.stream()
@@ -52,12 +55,14 @@ public class LocationService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public LocationResponse getLocationById(Long id) {
         Location location = locationRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Location not found with id: " + id));
         return modelMapper.map(location, LocationResponse.class);
     }
 
+    @Transactional(readOnly = true)
     public List<LocationResponse> getPopularLocations() {
         List<Location> locations = locationRepository.findByIsPopularAndIsActiveTrue(true);
         return locations.stream()
@@ -65,6 +70,7 @@ public class LocationService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public Page<LocationResponse> searchLocations(String keyword, Pageable pageable) {
         Page<Location> locations = locationRepository.searchByKeyword(keyword, pageable);
         return locations.map(location -> modelMapper.map(location, LocationResponse.class));
@@ -76,9 +82,7 @@ public class LocationService {
         User currentUser = (User) authentication.getPrincipal();
 
         // Only admins can create locations
-        if (!currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to create locations");
-        }
+        authorizationPolicy.requireAdmin(currentUser, "You don't have permission to create locations");
 
         // Check if location with same city, region, country already exists
         Optional<Location> existingLocation = locationRepository.findByCityIgnoreCaseAndRegionIgnoreCaseAndCountryIgnoreCase(
@@ -110,9 +114,7 @@ public class LocationService {
         User currentUser = (User) authentication.getPrincipal();
 
         // Only admins can update locations
-        if (!currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to update locations");
-        }
+        authorizationPolicy.requireAdmin(currentUser, "You don't have permission to update locations");
 
         Location location = locationRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Location not found with id: " + id));
@@ -174,9 +176,7 @@ public class LocationService {
         User currentUser = (User) authentication.getPrincipal();
 
         // Only admins can toggle location status
-        if (!currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to toggle location status");
-        }
+        authorizationPolicy.requireAdmin(currentUser, "You don't have permission to toggle location status");
 
         Location location = locationRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Location not found with id: " + id));
@@ -192,9 +192,7 @@ public class LocationService {
         User currentUser = (User) authentication.getPrincipal();
 
         // Only admins can toggle location popular status
-        if (!currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to toggle location popular status");
-        }
+        authorizationPolicy.requireAdmin(currentUser, "You don't have permission to toggle location popular status");
 
         Location location = locationRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Location not found with id: " + id));
@@ -210,9 +208,7 @@ public class LocationService {
         User currentUser = (User) authentication.getPrincipal();
 
         // Only admins can delete locations
-        if (!currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to delete locations");
-        }
+        authorizationPolicy.requireAdmin(currentUser, "You don't have permission to delete locations");
 
         Location location = locationRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Location not found with id: " + id));
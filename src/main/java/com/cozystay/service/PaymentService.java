@@ -0,0 +1,190 @@
+package com.cozystay.service;
+
+import com.cozystay.dto.payment.PaymentRequest;
+import com.cozystay.dto.payment.PaymentResponse;
+import com.cozystay.exception.BadRequestException;
+import com.cozystay.exception.ResourceAlreadyExistsException;
+import com.cozystay.exception.ResourceNotFoundException;
+import com.cozystay.exception.UnauthorizedException;
+import com.cozystay.model.Booking;
+import com.cozystay.model.BookingStatus;
+import com.cozystay.model.Payment;
+import com.cozystay.model.PaymentStatus;
+import com.cozystay.model.Role;
+import com.cozystay.model.User;
+import com.cozystay.payment.GatewayResponse;
+import com.cozystay.payment.PaymentGateway;
+import com.cozystay.repository.BookingRepository;
+import com.cozystay.repository.PaymentRepository;
+import com.cozystay.security.AuthorizationPolicy;
+import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Service
+public class PaymentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private AuthorizationPolicy authorizationPolicy;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Autowired
+    private ProviderAnalyticsService providerAnalyticsService;
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    @Transactional
+    public PaymentResponse createPayment(String idempotencyKey, PaymentRequest paymentRequest) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) authentication.getPrincipal();
+
+        if (idempotencyKey == null || idempotencyKey.trim().isEmpty()) {
+            throw new BadRequestException("Idempotency-Key header is required");
+        }
+
+        // A retried request returns the payment created by the first attempt
+        Optional<Payment> existingPayment = paymentRepository.findByTransactionId(idempotencyKey);
+        if (existingPayment.isPresent()) {
+            Payment payment = existingPayment.get();
+            if (!payment.getBooking().getId().equals(paymentRequest.getBookingId()) ||
+                    !payment.getBooking().getUser().getId().equals(currentUser.getId())) {
+                throw new BadRequestException("Idempotency-Key has already been used for a different payment");
+            }
+            return modelMapper.map(payment, PaymentResponse.class);
+        }
+
+        Booking booking = bookingRepository.findById(paymentRequest.getBookingId())
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + paymentRequest.getBookingId()));
+
+        // Verify the current user made the booking
+        if (!booking.getUser().getId().equals(currentUser.getId())) {
+            throw new UnauthorizedException("You can only pay for your own bookings");
+        }
+
+        if (booking.getStatus() != BookingStatus.PENDING && booking.getStatus() != BookingStatus.CONFIRMED) {
+            throw new BadRequestException("Booking cannot be paid in status " + booking.getStatus());
+        }
+
+        // A booking has one payment row; a declined charge is reopened for the retry instead of
+        // locking the booking out of payment
+        Optional<Payment> previousPayment = paymentRepository.lockByBookingId(booking.getId());
+        if (previousPayment.isPresent() && previousPayment.get().getStatus() != PaymentStatus.FAILED) {
+            throw new ResourceAlreadyExistsException("A payment already exists for booking with id: " + booking.getId());
+        }
+
+        // Charged asynchronously by the settlement job; see settlePendingBatch. The new key makes the
+        // gateway treat the retry as a fresh charge rather than replaying the decline.
+        Payment payment = previousPayment.orElseGet(() -> Payment.builder().booking(booking).build());
+        payment.setTransactionId(idempotencyKey);
+        payment.setAmount(booking.getTotalPrice());
+        payment.setStatus(PaymentStatus.PENDING);
+        payment.setMethod(paymentRequest.getMethod());
+        payment.setNotes(paymentRequest.getNotes());
+        payment.setPaidAt(null);
+
+        // Flush now so a concurrent request with the same key fails on the unique constraint here
+        Payment savedPayment = paymentRepository.saveAndFlush(payment);
+        return modelMapper.map(savedPayment, PaymentResponse.class);
+    }
+
+    public PaymentResponse getPaymentById(Long id) {
+        Payment payment = paymentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found with id: " + id));
+
+        verifyCanView(payment.getBooking());
+        return modelMapper.map(payment, PaymentResponse.class);
+    }
+
+    public PaymentResponse getPaymentByBookingId(Long bookingId) {
+        Payment payment = paymentRepository.findByBookingId(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found for booking with id: " + bookingId));
+
+        verifyCanView(payment.getBooking());
+        return modelMapper.map(payment, PaymentResponse.class);
+    }
+
+    public List<PaymentResponse> getCurrentUserPayments() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) authentication.getPrincipal();
+
+        return paymentRepository.findByUserId(currentUser.getId()).stream()
+                .map(payment -> modelMapper.map(payment, PaymentResponse.class))
+                .collect(Collectors.toList());
+    }
+
+    public List<PaymentResponse> getPaymentsForProvider() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) authentication.getPrincipal();
+
+        // Verify user is a provider
+        authorizationPolicy.requireAnyRole(currentUser, "You don't have permission to view provider payments",
+                Role.PROVIDER, Role.ADMIN);
+
+        return paymentRepository.findByProviderId(currentUser.getId()).stream()
+                .map(payment -> modelMapper.map(payment, PaymentResponse.class))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Locks up to {@code limit} PENDING payments, charges each through the gateway and records
+     * the outcome. Returns the number of payments processed so the caller can keep draining.
+     */
+    @Transactional
+    public int settlePendingBatch(int limit) {
+        List<Payment> payments = paymentRepository.lockPendingBatch(limit);
+
+        for (Payment payment : payments) {
+            // The gateway is keyed by transactionId, so if this transaction rolls back after the
+            // charge, the next attempt gets the original result back instead of charging again
+            GatewayResponse response = paymentGateway.charge(
+                    payment.getTransactionId(), payment.getAmount(), payment.getMethod());
+
+            if (response.isSuccess()) {
+                payment.setStatus(PaymentStatus.COMPLETED);
+                payment.setPaidAt(LocalDateTime.now());
+                providerAnalyticsService.recordPaymentCompleted(payment);
+            } else {
+                payment.setStatus(PaymentStatus.FAILED);
+                payment.setNotes(response.getMessage());
+                logger.warn("Payment {} failed: {}", payment.getId(), response.getMessage());
+            }
+        }
+
+        paymentRepository.saveAll(payments);
+        return payments.size();
+    }
+
+    private void verifyCanView(Booking booking) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) authentication.getPrincipal();
+
+        boolean isAdmin = authorizationPolicy.isAdmin(currentUser);
+        boolean isBookingUser = booking.getUser().getId().equals(currentUser.getId());
+        boolean isServiceProvider = authorizationPolicy.ownsService(currentUser, booking.getService().getId());
+
+        if (!isAdmin && !isBookingUser && !isServiceProvider) {
+            throw new UnauthorizedException("You don't have permission to view this payment");
+        }
+    }
+}
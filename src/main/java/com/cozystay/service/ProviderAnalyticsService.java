@@ -0,0 +1,164 @@
+package com.cozystay.service;
+
+import com.cozystay.dto.analytics.DailyAnalyticsResponse;
+import com.cozystay.dto.analytics.ProviderAnalyticsResponse;
+import com.cozystay.dto.analytics.ServiceAnalyticsResponse;
+import com.cozystay.exception.BadRequestException;
+import com.cozystay.model.Booking;
+import com.cozystay.model.Payment;
+import com.cozystay.model.Review;
+import com.cozystay.model.Service;
+import com.cozystay.model.User;
+import com.cozystay.repository.ServiceDailyStatsRepository;
+import com.cozystay.repository.projection.DailyAnalyticsView;
+import com.cozystay.repository.projection.ServiceAnalyticsView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+@org.springframework.stereotype.Service
+public class ProviderAnalyticsService {
+
+    private static final int MAX_RANGE_DAYS = 366;
+
+    @Autowired
+    private ServiceDailyStatsRepository serviceDailyStatsRepository;
+
+    public ProviderAnalyticsResponse getCurrentProviderAnalytics(LocalDate from, LocalDate to) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) authentication.getPrincipal();
+
+        validateRange(from, to);
+
+        List<DailyAnalyticsResponse> daily = new ArrayList<>();
+        long bookings = 0;
+        long nights = 0;
+        long cancellations = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        long ratingSum = 0;
+        long ratingCount = 0;
+
+        for (DailyAnalyticsView day : serviceDailyStatsRepository.findDailyForProvider(currentUser.getId(), from, to)) {
+            daily.add(new DailyAnalyticsResponse(day.getDate(), day.getBookings(), day.getNights(),
+                    day.getCancellations(), day.getRevenue(), averageRating(day.getRatingSum(), day.getRatingCount())));
+
+            bookings += day.getBookings();
+            nights += day.getNights();
+            cancellations += day.getCancellations();
+            revenue = revenue.add(day.getRevenue());
+            ratingSum += day.getRatingSum();
+            ratingCount += day.getRatingCount();
+        }
+
+        return new ProviderAnalyticsResponse(from, to, bookings, nights, cancellations, revenue,
+                averageRating(ratingSum, ratingCount), daily);
+    }
+
+    public List<ServiceAnalyticsResponse> getCurrentProviderServiceAnalytics(LocalDate from, LocalDate to) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) authentication.getPrincipal();
+
+        validateRange(from, to);
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+
+        List<ServiceAnalyticsResponse> services = new ArrayList<>();
+        for (ServiceAnalyticsView row : serviceDailyStatsRepository.findServicesForProvider(currentUser.getId(), from, to)) {
+            services.add(new ServiceAnalyticsResponse(row.getServiceId(), row.getTitle(), row.getBookings(),
+                    row.getNights(), row.getCancellations(), row.getRevenue(),
+                    averageRating(row.getRatingSum(), row.getRatingCount()),
+                    occupancy(row.getNights(), days)));
+        }
+        return services;
+    }
+
+    // Bookings are attributed to the day the stay starts, and each night to the day it falls on,
+    // so a window only counts the nights inside it
+    @Transactional
+    public void recordBookingCreated(Booking booking) {
+        Service service = booking.getService();
+        serviceDailyStatsRepository.applyDelta(service.getId(), service.getUser().getId(),
+                booking.getStartDateTime().toLocalDate(), 1, 0, 0, BigDecimal.ZERO, 0, 0);
+        applyNights(booking, 1);
+    }
+
+    // The booking stays counted as made; its nights are released and a cancellation recorded.
+    // Moving a cancelled booking back to an active status reverses this.
+    @Transactional
+    public void recordBookingCancellation(Booking booking, boolean cancelled) {
+        Service service = booking.getService();
+        long sign = cancelled ? 1 : -1;
+        serviceDailyStatsRepository.applyDelta(service.getId(), service.getUser().getId(),
+                booking.getStartDateTime().toLocalDate(), 0, 0, sign, BigDecimal.ZERO, 0, 0);
+        applyNights(booking, -sign);
+    }
+
+    // Revenue is attributed to the day it was collected
+    @Transactional
+    public void recordPaymentCompleted(Payment payment) {
+        Service service = payment.getBooking().getService();
+        LocalDate paidDate = payment.getPaidAt() != null ? payment.getPaidAt().toLocalDate() : LocalDate.now();
+        serviceDailyStatsRepository.applyDelta(service.getId(), service.getUser().getId(),
+                paidDate, 0, 0, 0, payment.getAmount(), 0, 0);
+    }
+
+    // Ratings are attributed to the day the review was written, matching the visible-only service average
+    @Transactional
+    public void recordRatingChange(Review review, long ratingDelta, long countDelta) {
+        if (ratingDelta == 0 && countDelta == 0) {
+            return;
+        }
+        Service service = review.getService();
+        LocalDateTime createdAt = review.getCreatedAt();
+        serviceDailyStatsRepository.applyDelta(service.getId(), service.getUser().getId(),
+                createdAt != null ? createdAt.toLocalDate() : LocalDate.now(),
+                0, 0, 0, BigDecimal.ZERO, ratingDelta, countDelta);
+    }
+
+    // Recomputes every rollup row from bookings, payments and reviews, with live deltas held off
+    // until it commits
+    @Transactional
+    public void rebuild() {
+        serviceDailyStatsRepository.lockForRebuild();
+        serviceDailyStatsRepository.deleteAllRows();
+        serviceDailyStatsRepository.rebuildBookingStats();
+        serviceDailyStatsRepository.rebuildRevenueStats();
+        serviceDailyStatsRepository.rebuildRatingStats();
+    }
+
+    private void applyNights(Booking booking, long delta) {
+        LocalDate from = booking.getStartDateTime().toLocalDate();
+        LocalDate to = booking.getEndDateTime().toLocalDate();
+        if (from.isBefore(to)) {
+            Service service = booking.getService();
+            serviceDailyStatsRepository.applyNightsDelta(service.getId(), service.getUser().getId(), from, to, delta);
+        }
+    }
+
+    // Nights are counted on the days they fall on, so a single-unit service never books more
+    // nights than the window has days; overlapping stays on a multi-unit service are capped
+    private double occupancy(long nights, long days) {
+        return Math.min(Math.max((double) nights / days, 0.0), 1.0);
+    }
+
+    private Double averageRating(long ratingSum, long ratingCount) {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : null;
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("From date must be before to date");
+        }
+
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new BadRequestException("Analytics range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+}
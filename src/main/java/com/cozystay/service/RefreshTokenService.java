@@ -0,0 +1,145 @@
+package com.cozystay.service;
+
+import com.cozystay.exception.InvalidTokenException;
+import com.cozystay.model.RefreshToken;
+import com.cozystay.model.User;
+import com.cozystay.repository.RefreshTokenRepository;
+import com.cozystay.repository.UserRepository;
+import com.cozystay.security.JwtTokenProvider;
+import com.cozystay.security.RevocationIndex;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    public record Rotation(User user, String familyId, String refreshToken) {
+    }
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private RevocationIndex revocationIndex;
+
+    public String newFamily() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Transactional
+    public String issue(User user, String familyId) {
+        String tokenId = UUID.randomUUID().toString();
+        String token = tokenProvider.generateRefreshToken(user, tokenId, familyId);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenId(tokenId)
+                .familyId(familyId)
+                .userId(user.getId())
+                .expiresAt(LocalDateTime.ofInstant(tokenProvider.getExpirationDate(token).toInstant(),
+                        ZoneId.systemDefault()))
+                .build());
+
+        return token;
+    }
+
+    // A rejected reuse must still commit the family revocation, hence noRollbackFor
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public Rotation rotate(String refreshToken) {
+        Claims claims = parse(refreshToken);
+        String familyId = claims.get(JwtTokenProvider.FAMILY_CLAIM, String.class);
+
+        if (revocationIndex.isRevoked(familyId)) {
+            throw new InvalidTokenException("Refresh token has been revoked");
+        }
+
+        RefreshToken stored = refreshTokenRepository.lockByTokenId(claims.getId())
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+
+        if (stored.getRevokedAt() != null) {
+            throw new InvalidTokenException("Refresh token has been revoked");
+        }
+
+        if (stored.getRotatedAt() != null) {
+            // Someone presented a token that was already exchanged: either the client or an
+            // attacker holds a stale copy, so end the whole login
+            logger.warn("Refresh token reuse detected for user {}, revoking family {}", stored.getUserId(), familyId);
+            revokeFamily(familyId);
+            throw new InvalidTokenException("Refresh token has already been used");
+        }
+
+        User user = userRepository.findById(stored.getUserId())
+                .filter(User::isActive)
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+
+        stored.setRotatedAt(LocalDateTime.now());
+        return new Rotation(user, familyId, issue(user, familyId));
+    }
+
+    @Transactional
+    public void revoke(String refreshToken) {
+        revokeFamily(parse(refreshToken).get(JwtTokenProvider.FAMILY_CLAIM, String.class));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildRevocationIndex() {
+        revocationIndex.rebuild(() -> refreshTokenRepository.findRevokedFamilyIds(LocalDateTime.now()));
+    }
+
+    // Picks up revocations made on other nodes and drops families whose tokens have all expired
+    @Scheduled(initialDelayString = "${auth.revocation.rebuild-interval-ms:300000}",
+            fixedDelayString = "${auth.revocation.rebuild-interval-ms:300000}")
+    @Transactional
+    public void purgeAndRebuild() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            logger.info("Purged {} expired refresh tokens", purged);
+        }
+        rebuildRevocationIndex();
+    }
+
+    private void revokeFamily(String familyId) {
+        refreshTokenRepository.revokeFamily(familyId, LocalDateTime.now());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revocationIndex.revoke(familyId);
+            }
+        });
+    }
+
+    private Claims parse(String refreshToken) {
+        Claims claims;
+        try {
+            claims = tokenProvider.getClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw new InvalidTokenException("Invalid refresh token", ex);
+        }
+        if (!tokenProvider.isRefreshToken(claims) || claims.getId() == null) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+        return claims;
+    }
+}
@@ -8,19 +8,28 @@ import com.cozystay.exception.ResourceNotFoundException;
 import com.cozystay.exception.UnauthorizedException;
 import com.cozystay.model.*;
 import com.cozystay.model.Service;
+import com.cozystay.paging.PageTotals;
+import com.cozystay.paging.PagingMode;
 import com.cozystay.repository.BookingRepository;
 import com.cozystay.repository.ReviewRepository;
 import com.cozystay.repository.ServiceRepository;
+import com.cozystay.repository.projection.ReviewImageView;
+import com.cozystay.repository.projection.ReviewListView;
+import com.cozystay.security.AuthorizationPolicy;
+import com.cozystay.web.ResourceVersionCache;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @org.springframework.stereotype.Service
@@ -35,28 +44,47 @@ public class ReviewService {
     @Autowired
     private ServiceRepository serviceRepository;
 
+    @Autowired
+    private ProviderAnalyticsService providerAnalyticsService;
+
+    @Autowired
+    private ListViewMapper listViewMapper;
+
+    @Autowired
+    private PageTotals pageTotals;
+
+    @Autowired
+    private ResourceVersionCache resourceVersionCache;
+
+    @Autowired
+    private AuthorizationPolicy authorizationPolicy;
+
     @Autowired
     private ModelMapper modelMapper;
 
-    public Page<ReviewResponse> getReviewsByServiceId(Long serviceId, Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Slice<ReviewResponse> getReviewsByServiceId(Long serviceId, Pageable pageable, PagingMode mode) {
         // Verify service exists
         if (!serviceRepository.existsById(serviceId)) {
             throw new ResourceNotFoundException("Service not found with id: " + serviceId);
         }
 
-        Page<Review> reviews = reviewRepository.findByServiceIdAndIsVisibleTrue(serviceId, pageable);
-        return reviews.map(review -> modelMapper.map(review, ReviewResponse.class));
+        return pageTotals.complete(toReviewResponses(reviewRepository.findByServiceIdAndIsVisibleTrue(serviceId, pageable)),
+                mode, "reviews:service:" + serviceId, () -> reviewRepository.countByServiceIdAndIsVisibleTrue(serviceId));
     }
 
-    public Page<ReviewResponse> getReviewsByUser(Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Slice<ReviewResponse> getReviewsByUser(Pageable pageable, PagingMode mode) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
 
-        Page<Review> reviews = reviewRepository.findByUserId(currentUser.getId(), pageable);
-        return reviews.map(review -> modelMapper.map(review, ReviewResponse.class));
+        Long userId = currentUser.getId();
+        return pageTotals.complete(toReviewResponses(reviewRepository.findByUserId(userId, pageable)),
+                mode, "reviews:user:" + userId, () -> reviewRepository.countByUserId(userId));
     }
 
-    public Page<ReviewResponse> getReviewsForProvider(Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Slice<ReviewResponse> getReviewsForProvider(Pageable pageable, PagingMode mode) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
 
@@ -73,25 +101,37 @@ public class ReviewService {
         // Update service average rating and review count
 //        updateServiceRatingAndCount(serviceId);
 
-        Page<Review> reviews = reviewRepository.findByProviderId(currentUser.getId(), pageable);
-        return reviews.map(review -> modelMapper.map(review, ReviewResponse.class));
+        Long providerId = currentUser.getId();
+        return pageTotals.complete(toReviewResponses(reviewRepository.findByProviderId(providerId, pageable)),
+                mode, "reviews:provider:" + providerId, () -> reviewRepository.countByProviderId(providerId));
     }
 
+    // Images for the whole page in one query instead of one collection load per review
+    private Slice<ReviewResponse> toReviewResponses(Slice<ReviewListView> reviews) {
+        Map<Long, List<String>> imagesByReview = new HashMap<>();
+        if (reviews.hasContent()) {
+            List<Long> reviewIds = reviews.map(ReviewListView::getId).getContent();
+            for (ReviewImageView image : reviewRepository.findImagesByReviewIds(reviewIds)) {
+                imagesByReview.computeIfAbsent(image.getReviewId(), id -> new ArrayList<>()).add(image.getImageUrl());
+            }
+        }
 
-    private void updateServiceRatingAndCount(Long serviceId) {
-        Double avgRating = reviewRepository.calculateAverageRatingForService(serviceId);
-        Integer reviewCount = reviewRepository.countReviewsForService(serviceId);
-
-        Service service = serviceRepository.findById(serviceId)
-                .orElseThrow(() -> new ResourceNotFoundException("Service not found with id: " + serviceId));
+        return reviews.map(review -> listViewMapper.toReviewResponse(review,
+                imagesByReview.getOrDefault(review.getId(), new ArrayList<>())));
+    }
 
-        service.setAvgRating(avgRating != null ? avgRating : 0.0);
-        service.setReviewCount(reviewCount != null ? reviewCount : 0);
 
-        serviceRepository.save(service);
+    private void updateServiceRatingAndCount(Long serviceId) {
+        // Concurrent reviews and owner edits no longer race on a loaded copy of the service
+        if (serviceRepository.refreshRatingSummary(serviceId) == 0) {
+            throw new ResourceNotFoundException("Service not found with id: " + serviceId);
+        }
+        // Native UPDATE bypasses the Hibernate listeners that normally invalidate the service's ETag
+        resourceVersionCache.evictAfterCommit(Service.class, serviceId);
     }
 
 
+    @Transactional(readOnly = true)
     public ReviewResponse getReviewById(Long id) {
         Review review = reviewRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Review not found with id: " + id));
@@ -138,6 +178,7 @@ public class ReviewService {
 
         // Update service average rating and review count
         updateServiceRatingAndCount(service.getId());
+        providerAnalyticsService.recordRatingChange(savedReview, savedReview.getRating(), 1);
 
         return modelMapper.map(savedReview, ReviewResponse.class);
     }
@@ -155,6 +196,7 @@ public class ReviewService {
             throw new UnauthorizedException("You can only update your own reviews");
         }
 
+        int previousRating = review.getRating();
         if (updateRequest.getRating() != null) {
             review.setRating(updateRequest.getRating());
         }
@@ -171,6 +213,9 @@ public class ReviewService {
 
         // Update service average rating
         updateServiceRatingAndCount(review.getService().getId());
+        if (review.isVisible()) {
+            providerAnalyticsService.recordRatingChange(updatedReview, updatedReview.getRating() - previousRating, 0);
+        }
 
         return modelMapper.map(updatedReview, ReviewResponse.class);
     }
@@ -183,10 +228,9 @@ public class ReviewService {
         Review review = reviewRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Review not found with id: " + id));
 
-        // Verify the current user is the service owner
-        if (!review.getService().getUser().getId().equals(currentUser.getId())) {
-            throw new UnauthorizedException("Only the service owner can reply to reviews");
-        }
+        // Verify the current user is the service owner (the service proxy is not initialized)
+        authorizationPolicy.requireServiceOwner(currentUser, review.getService().getId(),
+                "Only the service owner can reply to reviews");
 
         review.setOwnerReply(reply);
         review.setOwnerRepliedAt(LocalDateTime.now());
@@ -200,19 +244,22 @@ public class ReviewService {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
 
+        // Only admins can toggle review visibility
+        authorizationPolicy.requireAdmin(currentUser, "You don't have permission to toggle review visibility");
+
         Review review = reviewRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Review not found with id: " + id));
 
-        // Only admins can toggle review visibility
-        if (!currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to toggle review visibility");
-        }
-
+        boolean wasVisible = review.isVisible();
         review.setVisible(isVisible);
         Review updatedReview = reviewRepository.save(review);
 
         // Update service average rating and review count
         updateServiceRatingAndCount(review.getService().getId());
+        if (wasVisible != isVisible) {
+            long sign = isVisible ? 1 : -1;
+            providerAnalyticsService.recordRatingChange(updatedReview, sign * updatedReview.getRating(), sign);
+        }
 
         return modelMapper.map(updatedReview, ReviewResponse.class);
     }
@@ -1,21 +1,31 @@
 package com.cozystay.service;
 
 import com.cloudinary.Cloudinary;
+import com.cozystay.dto.category.CategoryResponse;
+import com.cozystay.dto.location.LocationResponse;
 import com.cozystay.dto.service.CreateServiceRequest;
 import com.cozystay.dto.service.ServiceDetailResponse;
 import com.cozystay.dto.service.ServiceResponse;
 import com.cozystay.dto.service.UpdateServiceRequest;
 import com.cozystay.exception.ResourceNotFoundException;
-import com.cozystay.exception.UnauthorizedException;
 import com.cozystay.model.*;
 import com.cozystay.model.Service;
+import com.cozystay.paging.PageTotals;
+import com.cozystay.paging.PagingMode;
 import com.cozystay.repository.CategoryRepository;
 import com.cozystay.repository.LocationRepository;
 import com.cozystay.repository.ServiceRepository;
+import com.cozystay.repository.SlotInventoryRepository;
+import com.cozystay.repository.projection.ServiceListView;
+import com.cozystay.security.AuthorizationPolicy;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,7 +34,9 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -39,9 +51,21 @@ public class ServiceManagementService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private SlotInventoryRepository slotInventoryRepository;
+
     @Autowired
     private LocationRepository locationRepository;
 
+    @Autowired
+    private ListViewMapper listViewMapper;
+
+    @Autowired
+    private PageTotals pageTotals;
+
+    @Autowired
+    private AuthorizationPolicy authorizationPolicy;
+
     @Autowired
     private ModelMapper modelMapper;
 
@@ -52,60 +76,72 @@ public class ServiceManagementService {
         this.cloudinary = cloudinary;
     }
 
-    public Page<ServiceResponse> getAllServices(Pageable pageable) {
-        Page<Service> services = serviceRepository.findByIsActiveTrue(pageable);
-        return services.map(service -> modelMapper.map(service, ServiceResponse.class));
+    @Transactional(readOnly = true)
+    public Slice<ServiceResponse> getAllServices(Pageable pageable, PagingMode mode) {
+        return pageTotals.complete(toServiceResponses(serviceRepository.findByIsActiveTrue(pageable)),
+                mode, "services:active", serviceRepository::countByIsActiveTrue);
     }
 
+    @Transactional(readOnly = true)
     public ServiceDetailResponse getServiceById(Long id) {
         Service service = serviceRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Service not found with id: " + id));
         return modelMapper.map(service, ServiceDetailResponse.class);
     }
 
-    public Page<ServiceResponse> getServicesByType(ServiceType type, Pageable pageable) {
-        Page<Service> services = serviceRepository.findByTypeAndIsActiveTrue(type, pageable);
-        return services.map(service -> modelMapper.map(service, ServiceResponse.class));
+    @Transactional(readOnly = true)
+    public Slice<ServiceResponse> getServicesByType(ServiceType type, Pageable pageable, PagingMode mode) {
+        return pageTotals.complete(toServiceResponses(serviceRepository.findByTypeAndIsActiveTrue(type, pageable)),
+                mode, "services:type:" + type, () -> serviceRepository.countByTypeAndIsActiveTrue(type));
     }
 
-    public Page<ServiceResponse> getServicesByCategory(Long categoryId, Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Slice<ServiceResponse> getServicesByCategory(Long categoryId, Pageable pageable, PagingMode mode) {
         // Verify category exists
         categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + categoryId));
 
-        Page<Service> services = serviceRepository.findByCategoryIdAndIsActiveTrue(categoryId, pageable);
-        return services.map(service -> modelMapper.map(service, ServiceResponse.class));
+        return pageTotals.complete(toServiceResponses(serviceRepository.findByCategoryIdAndIsActiveTrue(categoryId, pageable)),
+                mode, "services:category:" + categoryId, () -> serviceRepository.countByCategoryIdAndIsActiveTrue(categoryId));
     }
 
-    public Page<ServiceResponse> getServicesByLocation(Long locationId, Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Slice<ServiceResponse> getServicesByLocation(Long locationId, Pageable pageable, PagingMode mode) {
         // Verify location exists
         locationRepository.findById(locationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Location not found with id: " + locationId));
 
-        Page<Service> services = serviceRepository.findByLocationIdAndIsActiveTrue(locationId, pageable);
-        return services.map(service -> modelMapper.map(service, ServiceResponse.class));
+        return pageTotals.complete(toServiceResponses(serviceRepository.findByLocationIdAndIsActiveTrue(locationId, pageable)),
+                mode, "services:location:" + locationId, () -> serviceRepository.countByLocationIdAndIsActiveTrue(locationId));
     }
 
-    public Page<ServiceResponse> getServicesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
-        Page<Service> services = serviceRepository.findByPriceRange(minPrice, maxPrice, pageable);
-        return services.map(service -> modelMapper.map(service, ServiceResponse.class));
+    @Transactional(readOnly = true)
+    public Slice<ServiceResponse> getServicesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable,
+                                                          PagingMode mode) {
+        return pageTotals.complete(toServiceResponses(serviceRepository.findByPriceRange(minPrice, maxPrice, pageable)),
+                mode, "services:price:" + minPrice + ":" + maxPrice,
+                () -> serviceRepository.countByPriceRange(minPrice, maxPrice));
     }
 
-    public Page<ServiceResponse> searchServices(String keyword, Pageable pageable) {
-        Page<Service> services = serviceRepository.searchByKeyword(keyword, pageable);
-        return services.map(service -> modelMapper.map(service, ServiceResponse.class));
+    @Transactional(readOnly = true)
+    public Slice<ServiceResponse> searchServices(String keyword, Pageable pageable, PagingMode mode) {
+        return pageTotals.complete(toServiceResponses(serviceRepository.searchByKeyword(keyword, pageable)),
+                mode, "services:search:" + keyword, () -> serviceRepository.countByKeyword(keyword));
     }
 
-    public Page<ServiceResponse> getServicesByProvider(Long providerId, Pageable pageable) {
-        Page<Service> services = serviceRepository.findByUserId(providerId, pageable);
-        return services.map(service -> modelMapper.map(service, ServiceResponse.class));
+    @Transactional(readOnly = true)
+    public Slice<ServiceResponse> getServicesByProvider(Long providerId, Pageable pageable, PagingMode mode) {
+        return pageTotals.complete(toServiceResponses(serviceRepository.findByUserId(providerId, pageable)),
+                mode, "services:provider:" + providerId, () -> serviceRepository.countByUserId(providerId));
     }
 
-    public Page<ServiceResponse> getTopRatedServices(Pageable pageable) {
-        Page<Service> services = serviceRepository.findTopRatedServices(pageable);
-        return services.map(service -> modelMapper.map(service, ServiceResponse.class));
+    @Transactional(readOnly = true)
+    public Slice<ServiceResponse> getTopRatedServices(Pageable pageable, PagingMode mode) {
+        return pageTotals.complete(toServiceResponses(serviceRepository.findTopRatedServices(pageable)),
+                mode, "services:active", serviceRepository::countByIsActiveTrue);
     }
 
+    @Transactional(readOnly = true)
     public List<ServiceResponse> getMostPopularServices(Pageable pageable) {
         List<Service> services = serviceRepository.findMostPopularServices(pageable);
         return services.stream()
@@ -119,10 +155,8 @@ public class ServiceManagementService {
         User currentUser = (User) authentication.getPrincipal();
 
         // Only providers or admins can create services
-        if (!currentUser.getAuthorities().stream().anyMatch(a ->
-                a.getAuthority().equals("ROLE_PROVIDER") || a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to create services");
-        }
+        authorizationPolicy.requireAnyRole(currentUser, "You don't have permission to create services",
+                Role.PROVIDER, Role.ADMIN);
 
         Category category = categoryRepository.findById(createRequest.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + createRequest.getCategoryId()));
@@ -159,6 +193,7 @@ public class ServiceManagementService {
                 .build();
 
         Service savedService = serviceRepository.save(service);
+        authorizationPolicy.serviceCreated(savedService.getId(), currentUser.getId());
         return modelMapper.map(savedService, ServiceDetailResponse.class);
     }
 
@@ -167,13 +202,15 @@ public class ServiceManagementService {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
 
+        // Only the owner or admins can update a service
+        authorizationPolicy.requireServiceOwnerOrAdmin(currentUser, id, "You don't have permission to update this service");
+
         Service service = serviceRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Service not found with id: " + id));
 
-        // Only the owner or admins can update a service
-        if (!service.getUser().getId().equals(currentUser.getId()) &&
-                !currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to update this service");
+        // Partial updates are not idempotent, so a stale copy is rejected instead of retried
+        if (updateRequest.getVersion() != null && !updateRequest.getVersion().equals(service.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Service.class, id);
         }
 
         if (updateRequest.getTitle() != null) {
@@ -192,8 +229,10 @@ public class ServiceManagementService {
             service.setPricingUnit(updateRequest.getPricingUnit());
         }
 
-        if (updateRequest.getCapacity() != null) {
+        if (updateRequest.getCapacity() != null && !updateRequest.getCapacity().equals(service.getCapacity())) {
             service.setCapacity(updateRequest.getCapacity());
+            // Seats already sold in upcoming slots stay sold
+            slotInventoryRepository.resize(service.getId(), updateRequest.getCapacity(), LocalDateTime.now());
         }
 
         if (updateRequest.getAddress() != null) {
@@ -239,46 +278,42 @@ public class ServiceManagementService {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
 
+        // Only the owner or admins can delete a service
+        authorizationPolicy.requireServiceOwnerOrAdmin(currentUser, id, "You don't have permission to delete this service");
+
         Service service = serviceRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Service not found with id: " + id));
 
-        // Only the owner or admins can delete a service
-        if (!service.getUser().getId().equals(currentUser.getId()) &&
-                !currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to delete this service");
-        }
-
         serviceRepository.delete(service);
+        authorizationPolicy.serviceDeleted(id);
     }
 
+    // Sets an absolute value, so replaying it on a fresh copy after a conflict is safe
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
     @Transactional
     public ServiceDetailResponse toggleServiceActiveStatus(Long id, boolean isActive) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
 
+        // Only the owner or admins can toggle service status
+        authorizationPolicy.requireServiceOwnerOrAdmin(currentUser, id, "You don't have permission to toggle this service status");
+
         Service service = serviceRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Service not found with id: " + id));
 
-        // Only the owner or admins can toggle service status
-        if (!service.getUser().getId().equals(currentUser.getId()) &&
-                !currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to toggle this service status");
-        }
-
         service.setActive(isActive);
         Service updatedService = serviceRepository.save(service);
         return modelMapper.map(updatedService, ServiceDetailResponse.class);
     }
 
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
     @Transactional
     public ServiceDetailResponse verifyService(Long id) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
 
         // Only admins can verify services
-        if (!currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to verify services");
-        }
+        authorizationPolicy.requireAdmin(currentUser, "You don't have permission to verify services");
 
         Service service = serviceRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Service not found with id: " + id));
@@ -288,6 +323,19 @@ public class ServiceManagementService {
         return modelMapper.map(updatedService, ServiceDetailResponse.class);
     }
 
+    private Slice<ServiceResponse> toServiceResponses(Slice<ServiceListView> page) {
+        // Category and location are second-level cache hits; map each distinct one once per page
+        Map<Long, CategoryResponse> categories = new HashMap<>();
+        Map<Long, LocationResponse> locations = new HashMap<>();
+        return page.map(view -> listViewMapper.toServiceResponse(view,
+                categories.computeIfAbsent(view.getCategoryId(), id -> categoryRepository.findById(id)
+                        .map(category -> modelMapper.map(category, CategoryResponse.class))
+                        .orElse(null)),
+                locations.computeIfAbsent(view.getLocationId(), id -> locationRepository.findById(id)
+                        .map(location -> modelMapper.map(location, LocationResponse.class))
+                        .orElse(null))));
+    }
+
     private String uploadDocumentToCloudinary(MultipartFile documentFile) throws IOException {
         // Extract the original filename
         String originalFilename = documentFile.getOriginalFilename();
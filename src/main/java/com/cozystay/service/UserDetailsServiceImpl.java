@@ -4,13 +4,14 @@ import com.cozystay.model.User;
 import com.cozystay.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
@@ -24,4 +25,17 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return user;
     }
-}
\ No newline at end of file
+
+    // Called by the authentication provider after a successful login when the stored hash
+    // uses a lower BCrypt strength than security.password.bcrypt-strength
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() ->
+                        new UsernameNotFoundException("User not found with username: " + userDetails.getUsername()));
+
+        user.setPassword(newPassword);
+        return userRepository.save(user);
+    }
+}
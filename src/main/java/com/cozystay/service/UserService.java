@@ -6,6 +6,7 @@ import com.cozystay.exception.ResourceNotFoundException;
 import com.cozystay.exception.UnauthorizedException;
 import com.cozystay.model.User;
 import com.cozystay.repository.UserRepository;
+import com.cozystay.security.AuthorizationPolicy;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
@@ -20,6 +21,9 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AuthorizationPolicy authorizationPolicy;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -45,7 +49,7 @@ public class UserService {
 
         // Only allow users to update their own profile or admins
         if (!currentUser.getId().equals(id) &&
-                !currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+                !authorizationPolicy.isAdmin(currentUser)) {
             throw new UnauthorizedException("You don't have permission to update this user");
         }
 
@@ -87,7 +91,7 @@ public class UserService {
 
         // Only allow users to delete their own account or admins
         if (!currentUser.getId().equals(id) &&
-                !currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+                !authorizationPolicy.isAdmin(currentUser)) {
             throw new UnauthorizedException("You don't have permission to delete this user");
         }
 
@@ -103,9 +107,7 @@ public class UserService {
         User currentUser = (User) authentication.getPrincipal();
 
         // Only allow admins to toggle user status
-        if (!currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to toggle user status");
-        }
+        authorizationPolicy.requireAdmin(currentUser, "You don't have permission to toggle user status");
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
@@ -121,9 +123,7 @@ public class UserService {
         User currentUser = (User) authentication.getPrincipal();
 
         // Only allow admins to verify users
-        if (!currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            throw new UnauthorizedException("You don't have permission to verify users");
-        }
+        authorizationPolicy.requireAdmin(currentUser, "You don't have permission to verify users");
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
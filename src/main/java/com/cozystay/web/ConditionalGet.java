@@ -0,0 +1,65 @@
+package com.cozystay.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Answers If-None-Match / If-Modified-Since from ResourceVersionCache before the loader runs,
+// so a 304 costs neither a query nor a DTO mapping.
+@Component
+public class ConditionalGet {
+
+    @Autowired
+    private ResourceVersionCache resourceVersionCache;
+
+    public <T> ResponseEntity<T> single(WebRequest request, Class<?> type, Object id, CacheControl cacheControl,
+                                        Supplier<T> loader, Function<T, LocalDateTime> updatedAt) {
+        return single(request, type, id, List.of(), cacheControl, loader, updatedAt);
+    }
+
+    /**
+     * For responses that embed rows of other types: {@code updatedAt} must cover those rows too,
+     * and a committed change to any {@code embedded} type drops the remembered version.
+     */
+    public <T> ResponseEntity<T> single(WebRequest request, Class<?> type, Object id, List<Class<?>> embedded,
+                                        CacheControl cacheControl, Supplier<T> loader,
+                                        Function<T, LocalDateTime> updatedAt) {
+        ResourceVersionCache.Version known = resourceVersionCache.get(type, id, embedded);
+        if (known != null && request.checkNotModified(known.etag(), known.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+
+        long generation = resourceVersionCache.generation(type) + resourceVersionCache.generation(embedded);
+        T body = loader.get();
+        ResourceVersionCache.Version version =
+                resourceVersionCache.record(type, id, embedded, updatedAt.apply(body), generation);
+        if (version == null) {
+            return ResponseEntity.ok().cacheControl(cacheControl).body(body);
+        }
+        // A first request carrying a still-valid validator is turned into a 304 by Spring MVC
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(version.etag())
+                .lastModified(version.lastModified())
+                .body(body);
+    }
+
+    public <T> ResponseEntity<T> collection(WebRequest request, Class<?> type, CacheControl cacheControl,
+                                            Supplier<T> loader) {
+        // Taken before loading: a change committed during the load yields a tag the next request won't match
+        // (on this instance at once, on others once their cached tag expires)
+        String etag = resourceVersionCache.collectionEtag(type);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).eTag(etag).body(loader.get());
+    }
+}
@@ -0,0 +1,214 @@
+package com.cozystay.web;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Last known version of each resource served with an ETag, so a conditional GET can be answered
+ * without loading anything. Entries are dropped when Hibernate commits a change to the entity, or
+ * to any type embedded in the response; the TTL bounds staleness for changes committed by another
+ * instance. Collection tags are derived from the table itself (row count and latest updatedAt),
+ * so every instance computes the same tag for the same data.
+ */
+@Component
+public class ResourceVersionCache implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    public record Version(String etag, long lastModified, long expiresAt, long embeddedGeneration) {
+    }
+
+    private static final String COLLECTION = "*";
+
+    private final Map<String, Version> versions = new ConcurrentHashMap<>();
+    private final Map<Class<?>, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${http.etag.version-ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${http.etag.max-entries:10000}")
+    private int maxEntries;
+
+    @PostConstruct
+    public void register() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    public Version get(Class<?> type, Object id) {
+        return get(type, id, List.of());
+    }
+
+    // Also null once any of the embedded types changed, since the id alone does not say which rows are embedded
+    public Version get(Class<?> type, Object id, List<Class<?>> embedded) {
+        Version version = versions.get(key(type, id));
+        if (version == null || version.expiresAt() <= System.currentTimeMillis() ||
+                version.embeddedGeneration() != generation(embedded)) {
+            return null;
+        }
+        return version;
+    }
+
+    public long generation(Class<?> type) {
+        return generations.computeIfAbsent(type, t -> new AtomicLong()).get();
+    }
+
+    // Generations only grow, so the sum changes whenever any one of them does
+    public long generation(List<Class<?>> types) {
+        long sum = 0;
+        for (Class<?> type : types) {
+            sum += generation(type);
+        }
+        return sum;
+    }
+
+    public Version record(Class<?> type, Object id, LocalDateTime updatedAt, long generation) {
+        return record(type, id, List.of(), updatedAt, generation);
+    }
+
+    /**
+     * Remembers the version read by a request that started at {@code generation} (the type's plus
+     * the embedded types'). Nothing is stored if a change to any of them committed meanwhile,
+     * since the value may predate it.
+     */
+    public Version record(Class<?> type, Object id, List<Class<?>> embedded, LocalDateTime updatedAt,
+                          long generation) {
+        if (updatedAt == null) {
+            return null;
+        }
+
+        long lastModified = toMillis(updatedAt);
+        long embeddedGeneration = generation(embedded);
+        Version version = new Version("W/\"" + id + "-" + Long.toHexString(lastModified) + "\"",
+                lastModified, System.currentTimeMillis() + ttlMs, embeddedGeneration);
+
+        if (generation(type) + embeddedGeneration == generation) {
+            store(key(type, id), version);
+        }
+        return version;
+    }
+
+    /**
+     * Tag for the collection of all rows of {@code type}: changes with any insert, update or delete,
+     * and is the same on every instance. Cached for the TTL like single versions.
+     */
+    public String collectionEtag(Class<?> type) {
+        Version known = get(type, COLLECTION);
+        if (known != null) {
+            return known.etag();
+        }
+
+        long generation = generation(type);
+        String entityName = entityManager.getMetamodel().entity(type).getName();
+        Object[] row = entityManager.createQuery(
+                "SELECT COUNT(e), MAX(e.updatedAt) FROM " + entityName + " e", Object[].class).getSingleResult();
+        long count = (Long) row[0];
+        long lastModified = row[1] == null ? 0 : toMillis((LocalDateTime) row[1]);
+
+        Version version = new Version("W/\"" + type.getSimpleName().toLowerCase() + "-" + Long.toHexString(count) +
+                "-" + Long.toHexString(lastModified) + "\"", lastModified, System.currentTimeMillis() + ttlMs, 0);
+        if (generation(type) == generation) {
+            store(key(type, COLLECTION), version);
+        }
+        return version.etag();
+    }
+
+    public void evict(Class<?> type, Object id) {
+        generations.computeIfAbsent(type, t -> new AtomicLong()).incrementAndGet();
+        versions.remove(key(type, id));
+        versions.remove(key(type, COLLECTION));
+    }
+
+    // For changes Hibernate does not see, such as native UPDATE statements
+    public void evictAfterCommit(Class<?> type, Object id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(type, id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(type, id);
+            }
+        });
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        evict(event.getPersister().getMappedClass(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        evict(event.getPersister().getMappedClass(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        evict(event.getPersister().getMappedClass(), event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+
+    private void store(String key, Version version) {
+        if (versions.size() >= maxEntries) {
+            versions.clear();
+        }
+        versions.put(key, version);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private String key(Class<?> type, Object id) {
+        return type.getSimpleName() + ":" + id;
+    }
+}
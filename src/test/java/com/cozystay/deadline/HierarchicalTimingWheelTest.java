@@ -0,0 +1,66 @@
+package com.cozystay.deadline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void firesWithinOneTickOfTheDeadline() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 8, 1_000);
+        List<long[]> fired = new ArrayList<>();
+        Random random = new Random(7);
+
+        // Spans the base level and three overflow levels
+        for (int i = 0; i < 5_000; i++) {
+            long dueAt = 1_010 + random.nextInt(50_000);
+            assertThat(wheel.schedule(dueAt, dueAt)).isTrue();
+        }
+        assertThat(wheel.size()).isEqualTo(5_000);
+
+        for (long now = 1_000; now <= 52_000; now += 1 + random.nextInt(40)) {
+            long at = now;
+            wheel.advance(now, dueAt -> fired.add(new long[]{dueAt, at}));
+        }
+
+        assertThat(fired).hasSize(5_000);
+        assertThat(wheel.size()).isZero();
+        for (long[] event : fired) {
+            // Fired no more than one tick early, and on the first advance after that
+            assertThat(event[1]).isGreaterThanOrEqualTo(event[0] - 10);
+            assertThat(event[1] - event[0]).isLessThan(40);
+        }
+    }
+
+    @Test
+    void rejectsWhatIsAlreadyDue() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(100, 16, 5_000);
+
+        assertThat(wheel.schedule(4_000, "past")).isFalse();
+        assertThat(wheel.schedule(5_050, "this tick")).isFalse();
+        assertThat(wheel.schedule(5_100, "next tick")).isTrue();
+        assertThat(wheel.firedBeforeMs()).isEqualTo(5_100);
+    }
+
+    @Test
+    void catchesUpAfterALongPause() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000, 64, 0);
+        List<String> fired = new ArrayList<>();
+
+        wheel.schedule(30_000, "a");
+        wheel.schedule(3_600_000, "b");
+        wheel.schedule(7_200_000, "c");
+
+        wheel.advance(3_600_000, fired::add);
+        assertThat(fired).containsExactly("a", "b");
+
+        wheel.advance(7_200_000, fired::add);
+        assertThat(fired).containsExactly("a", "b", "c");
+        assertThat(wheel.firedBeforeMs()).isEqualTo(7_201_000);
+    }
+}
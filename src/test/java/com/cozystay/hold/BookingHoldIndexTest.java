@@ -0,0 +1,59 @@
+package com.cozystay.hold;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingHoldIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 6, 1, 15, 0);
+
+    private static BookingHoldIndex.Hold hold(String token, long userId, int fromDay, int toDay, LocalDateTime expiresAt) {
+        return new BookingHoldIndex.Hold(token, userId, DAY.plusDays(fromDay), DAY.plusDays(toDay), expiresAt);
+    }
+
+    @Test
+    void otherGuestsCannotHoldOverlappingDates() {
+        BookingHoldIndex index = new BookingHoldIndex();
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+
+        assertThat(index.tryPlace(1L, hold("a", 10L, 0, 3, expiresAt))).isTrue();
+        assertThat(index.tryPlace(1L, hold("b", 20L, 2, 4, expiresAt))).isFalse();
+        // Back-to-back stays, the holder's own second hold and another service are fine
+        assertThat(index.tryPlace(1L, hold("c", 20L, 3, 5, expiresAt))).isTrue();
+        assertThat(index.tryPlace(1L, hold("d", 10L, 1, 2, expiresAt))).isTrue();
+        assertThat(index.tryPlace(2L, hold("e", 20L, 0, 3, expiresAt))).isTrue();
+
+        assertThat(index.isHeldByOther(1L, DAY.plusDays(1), DAY.plusDays(2), 20L)).isTrue();
+        assertThat(index.isHeldByOther(1L, DAY.plusDays(1), DAY.plusDays(2), 10L)).isFalse();
+        assertThat(index.heldByOthers(1L, DAY, DAY.plusDays(10), 30L)).hasSize(3);
+    }
+
+    @Test
+    void expiredHoldsStopCountingWithoutRelease() {
+        BookingHoldIndex index = new BookingHoldIndex();
+
+        index.tryPlace(1L, hold("a", 10L, 0, 3, LocalDateTime.now().minusSeconds(1)));
+
+        assertThat(index.isHeldByOther(1L, DAY, DAY.plusDays(3), 20L)).isFalse();
+        assertThat(index.tryPlace(1L, hold("b", 20L, 0, 3, LocalDateTime.now().plusMinutes(10)))).isTrue();
+        assertThat(index.release("a", 10L)).isFalse();
+    }
+
+    @Test
+    void releaseOnlyByTheHolder() {
+        BookingHoldIndex index = new BookingHoldIndex();
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+        index.tryPlace(1L, hold("a", 10L, 0, 3, expiresAt));
+
+        assertThat(index.release("a", 20L)).isFalse();
+        assertThat(index.release("a", 10L)).isTrue();
+        assertThat(index.isHeldByOther(1L, DAY, DAY.plusDays(3), 20L)).isFalse();
+
+        index.tryPlace(1L, hold("b", 10L, 0, 3, expiresAt));
+        index.releaseOverlapping(1L, 10L, DAY.plusDays(1), DAY.plusDays(2));
+        assertThat(index.isHeldByOther(1L, DAY, DAY.plusDays(3), 20L)).isFalse();
+    }
+}
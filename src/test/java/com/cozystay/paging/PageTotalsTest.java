@@ -0,0 +1,80 @@
+package com.cozystay.paging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageTotalsTest {
+
+    private PageTotals pageTotals;
+    private AtomicInteger counts;
+
+    @BeforeEach
+    void setUp() {
+        pageTotals = new PageTotals();
+        ReflectionTestUtils.setField(pageTotals, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(pageTotals, "maxEntries", 100);
+        counts = new AtomicInteger();
+    }
+
+    @Test
+    void sliceModeNeverCounts() {
+        Slice<String> result = pageTotals.complete(slice(0, true), PagingMode.SLICE, "key", this::count);
+
+        assertThat(result).isNotInstanceOf(Page.class);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(counts).hasValue(0);
+    }
+
+    @Test
+    void lastPageTotalIsDerivedWithoutCounting() {
+        Page<String> result = (Page<String>) pageTotals.complete(slice(2, false), PagingMode.PAGE, "key", this::count);
+
+        assertThat(result.getTotalElements()).isEqualTo(30);
+        assertThat(counts).hasValue(0);
+    }
+
+    @Test
+    void pageModeCountsEveryTime() {
+        pageTotals.complete(slice(0, true), PagingMode.PAGE, "key", this::count);
+        Page<String> result = (Page<String>) pageTotals.complete(slice(0, true), PagingMode.PAGE, "key", this::count);
+
+        assertThat(result.getTotalElements()).isEqualTo(1000);
+        assertThat(counts).hasValue(2);
+    }
+
+    @Test
+    void estimateModeReusesCachedCount() {
+        pageTotals.complete(slice(0, true), PagingMode.ESTIMATE, "key", this::count);
+        Page<String> result = (Page<String>) pageTotals.complete(slice(1, true), PagingMode.ESTIMATE, "key", this::count);
+
+        assertThat(result.getTotalElements()).isEqualTo(1000);
+        assertThat(counts).hasValue(1);
+    }
+
+    @Test
+    void staleEstimateIsRaisedToRowsAlreadySeen() {
+        Page<String> result = (Page<String>) pageTotals.complete(slice(5, true), PagingMode.ESTIMATE, "key", () -> 3);
+
+        assertThat(result.getTotalElements()).isEqualTo(61);
+        assertThat(result.hasNext()).isTrue();
+    }
+
+    private long count() {
+        counts.incrementAndGet();
+        return 1000;
+    }
+
+    private Slice<String> slice(int page, boolean hasNext) {
+        return new SliceImpl<>(List.of("a", "b", "c", "d", "e", "f", "g", "h", "i", "j"), PageRequest.of(page, 10), hasNext);
+    }
+}
@@ -0,0 +1,97 @@
+package com.cozystay.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlTest {
+
+    @Test
+    void bucketAdmitsBurstThenReportsWait() {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(backend.tryConsume("login:ip:10.0.0.1", 5, 1)).isZero();
+        }
+        long waitMs = backend.tryConsume("login:ip:10.0.0.1", 5, 1);
+
+        assertThat(waitMs).isBetween(1L, 1000L);
+        // Other clients have their own bucket
+        assertThat(backend.tryConsume("login:ip:10.0.0.2", 5, 1)).isZero();
+    }
+
+    @Test
+    void concurrencyLimitRejectsAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 100);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(1_000_000);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void slowResponsesShrinkTheLimitAndFastOnesGrowIt() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 40, 100);
+
+        limiter.tryAcquire();
+        limiter.release(500_000_000L);
+        assertThat(limiter.getLimit()).isEqualTo(18);
+
+        int before = limiter.getLimit();
+        for (int i = 0; i < 200; i++) {
+            while (limiter.tryAcquire()) {
+                // fill up to the limit so releases count as saturated
+            }
+            limiter.release(1_000_000L);
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(before);
+    }
+
+    @Test
+    void overlappingRoutesChargeOnlyTheMostSpecificBucket() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        // Declared broadest first, so the choice cannot come from declaration order
+        properties.getRoutes().put("catalog", route("/services/**", 1));
+        properties.getRoutes().put("search", route("/services/search", 2));
+
+        RateLimitFilter filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "properties", properties);
+        ReflectionTestUtils.setField(filter, "backend", new LocalRateLimitBackend());
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+
+        // Both searches fit the search bucket; the catalog bucket of one would reject the second
+        assertThat(status(filter, "/services/search")).isEqualTo(200);
+        assertThat(status(filter, "/services/search")).isEqualTo(200);
+        assertThat(status(filter, "/services/search")).isEqualTo(429);
+
+        // The searches took nothing from the catalog bucket
+        assertThat(status(filter, "/services/42")).isEqualTo(200);
+        assertThat(status(filter, "/services/43")).isEqualTo(429);
+    }
+
+    private RateLimitProperties.Route route(String path, int capacity) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setMethod("GET");
+        route.setPath(path);
+        route.setCapacity(capacity);
+        route.setRefillPerMinute(1);
+        route.setKey(RateLimitProperties.KeyType.IP);
+        return route;
+    }
+
+    private int status(RateLimitFilter filter, String path) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", path), response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,94 @@
+package com.cozystay.repository;
+
+import com.cozystay.model.Category;
+import com.cozystay.model.Location;
+import com.cozystay.model.PricingUnit;
+import com.cozystay.model.Role;
+import com.cozystay.model.Service;
+import com.cozystay.model.ServiceType;
+import com.cozystay.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Users, categories, locations and services for repository tests, saved with valid defaults so a
+ * test only sets what it asserts on. Pull it in with {@code @Import(CatalogFixtures.class)}.
+ */
+@TestComponent
+public class CatalogFixtures {
+
+    // Nothing is rolled back between tests, and named databases outlive a context, so every
+    // unique key carries this run's prefix and a counter
+    private final String run = Long.toString(System.nanoTime(), 36);
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    public User provider() {
+        return user("provider", Role.PROVIDER);
+    }
+
+    public User guest() {
+        return user("guest", Role.USER);
+    }
+
+    public Category category() {
+        return categoryRepository.save(Category.builder().name(unique("Category")).isActive(true).build());
+    }
+
+    public Location location() {
+        return locationRepository.save(Location.builder()
+                .city("Hanoi").region("Hanoi").country("Vietnam")
+                .latitude(21.03).longitude(105.85).isActive(true).build());
+    }
+
+    // Unsaved, so callers can override what they need before building
+    public Service.ServiceBuilder service(User provider, Category category, Location location) {
+        return Service.builder()
+                .title("Cozy room")
+                .description("A cozy room")
+                .type(ServiceType.ACCOMMODATION)
+                .price(BigDecimal.valueOf(50))
+                .pricingUnit(PricingUnit.PER_NIGHT)
+                .latitude(location.getLatitude())
+                .longitude(location.getLongitude())
+                .amenities(new HashSet<>())
+                .policies(new HashSet<>())
+                .images(new ArrayList<>())
+                .isActive(true)
+                .user(provider)
+                .category(category)
+                .location(location);
+    }
+
+    private User user(String prefix, Role role) {
+        String username = unique(prefix);
+        return userRepository.save(User.builder()
+                .username(username)
+                .password("password")
+                .firstName("Test")
+                .lastName(role.name())
+                .email(username + "@example.com")
+                .isProvider(role == Role.PROVIDER)
+                .isActive(true)
+                .roles(new HashSet<>(Set.of(role)))
+                .build());
+    }
+
+    private String unique(String prefix) {
+        return prefix + "-" + run + "-" + sequence.incrementAndGet();
+    }
+}
@@ -0,0 +1,97 @@
+package com.cozystay.repository;
+
+import com.cozystay.model.Category;
+import com.cozystay.model.Location;
+import com.cozystay.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.cozystay.repository.CatalogSecondLevelCacheTest$RecordingStatementInspector"
+})
+@Import(CatalogFixtures.class)
+// Every repository call runs in its own session, as it does behind the catalog endpoints
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogSecondLevelCacheTest {
+
+    private static final Pattern CATALOG_TABLES = Pattern.compile("\\b(categories|locations)\\b");
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void catalogListingsDoNotSelectCategoriesOrLocationsOnceCacheIsWarm() {
+        User provider = fixtures.provider();
+        Category category = fixtures.category();
+        Location location = fixtures.location();
+        for (int i = 0; i < 3; i++) {
+            serviceRepository.save(fixtures.service(provider, category, location).title("Cozy room " + i).build());
+        }
+
+        // Warm the entity and query regions
+        serviceRepository.findByIsActiveTrue(PageRequest.of(0, 10));
+        categoryRepository.findByIsActiveTrue();
+        locationRepository.findByIsActiveTrue();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        assertThat(serviceRepository.findByIsActiveTrue(PageRequest.of(0, 10)).getContent()).hasSize(3);
+        assertThat(serviceRepository.findByCategoryIdAndIsActiveTrue(category.getId(), PageRequest.of(0, 10))
+                .getContent()).hasSize(3);
+        assertThat(serviceRepository.findByLocationIdAndIsActiveTrue(location.getId(), PageRequest.of(0, 10))
+                .getContent()).hasSize(3);
+        assertThat(categoryRepository.findById(category.getId())).isPresent();
+        assertThat(locationRepository.findById(location.getId())).isPresent();
+        assertThat(categoryRepository.findByIsActiveTrue()).hasSize(1);
+        assertThat(locationRepository.findByIsActiveTrue()).hasSize(1);
+
+        List<String> catalogSelects = RecordingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> CATALOG_TABLES.matcher(sql.toLowerCase()).find())
+                .toList();
+        assertThat(catalogSelects).isEmpty();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(statistics.getQueryCacheHitCount()).isPositive();
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.cozystay.repository;
+
+import com.cozystay.model.Booking;
+import com.cozystay.model.BookingStatus;
+import com.cozystay.model.Service;
+import com.cozystay.model.User;
+import com.cozystay.repository.projection.BookingListView;
+import com.cozystay.repository.projection.ServiceListView;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Entities loaded per repository call behind the booking and catalog endpoints. Detail reads follow
+// their fetch plan; list pages are projections and should not materialize any entity at all.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(CatalogFixtures.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityFetchPlanTest {
+
+    private static final int BOOKINGS = 5;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User guest;
+    private User provider;
+    private Long bookingId;
+
+    @BeforeEach
+    void setUp() {
+        provider = fixtures.provider();
+        guest = fixtures.guest();
+        Service service = serviceRepository.save(
+                fixtures.service(provider, fixtures.category(), fixtures.location()).build());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = bookingRepository.save(Booking.builder()
+                    .user(guest)
+                    .service(service)
+                    .startDateTime(start.plusDays(i * 3L))
+                    .endDateTime(start.plusDays(i * 3L + 2))
+                    .totalPrice(BigDecimal.valueOf(80))
+                    .status(BookingStatus.PENDING)
+                    .build());
+            bookingId = booking.getId();
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void bookingDetailLoadsOnlyItsFetchPlan() {
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+
+        // booking + guest + service + provider; nothing from the guest's or provider's history
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(4);
+        assertThat(statistics.getCollectionStatistics(User.class.getName() + ".bookings").getLoadCount()).isZero();
+        assertThat(statistics.getCollectionStatistics(Service.class.getName() + ".bookings").getLoadCount()).isZero();
+        assertThat(booking.getService().getUser().getId()).isEqualTo(provider.getId());
+    }
+
+    @Test
+    void bookingPageReadsColumnsWithoutLoadingEntities() {
+        Slice<BookingListView> page = bookingRepository.findByUserId(guest.getId(), PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize(BOOKINGS);
+        assertThat(page.getContent()).allSatisfy(row -> {
+            assertThat(row.getUserId()).isEqualTo(guest.getId());
+            assertThat(row.getProviderId()).isEqualTo(provider.getId());
+            // Flags the list DTOs report as primitives must come from the row, not default to false
+            assertThat(row.getUserActive()).isTrue();
+            assertThat(row.getUserIsProvider()).isFalse();
+            assertThat(row.getProviderIsProvider()).isTrue();
+            assertThat(row.getServiceVerified()).isFalse();
+        });
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void serviceListingReadsColumnsWithoutLoadingEntities() {
+        Slice<ServiceListView> page = serviceRepository.findByUserId(provider.getId(), PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getContent().get(0).getProviderId()).isEqualTo(provider.getId());
+        assertThat(page.getContent().get(0).getCategoryId()).isNotNull();
+        assertThat(page.getContent().get(0).getProviderIsProvider()).isTrue();
+        assertThat(page.getContent().get(0).getProviderActive()).isTrue();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.cozystay.repository;
+
+import com.cozystay.model.Category;
+import com.cozystay.model.Location;
+import com.cozystay.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Cart checkout contention: many carts locking overlapping sets of services, each listing them in
+// a different order, must all go through (queued behind each other, never deadlocked)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(CatalogFixtures.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ServiceLockOrderTest {
+
+    private static final int SERVICES = 6;
+    private static final int CARTS = 8;
+    private static final int CHECKOUTS_PER_CART = 25;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> serviceIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User provider = fixtures.provider();
+        Category category = fixtures.category();
+        Location location = fixtures.location();
+
+        for (int i = 0; i < SERVICES; i++) {
+            serviceIds.add(serviceRepository.save(fixtures.service(provider, category, location).build()).getId());
+        }
+    }
+
+    @Test
+    void overlappingCartsLockInIdOrderWithoutDeadlocking() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(CARTS);
+        AtomicInteger checkouts = new AtomicInteger();
+
+        try {
+            List<Future<?>> carts = new ArrayList<>();
+            for (int c = 0; c < CARTS; c++) {
+                Random random = new Random(c);
+                carts.add(executor.submit(() -> {
+                    for (int i = 0; i < CHECKOUTS_PER_CART; i++) {
+                        List<Long> cart = new ArrayList<>(serviceIds);
+                        Collections.shuffle(cart, random);
+                        List<Long> items = cart.subList(0, 2 + random.nextInt(SERVICES - 1));
+
+                        List<Long> locked = transactionTemplate.execute(status -> serviceRepository.lockAllByIdIn(items));
+
+                        assertThat(locked).isSorted().containsExactlyInAnyOrderElementsOf(items);
+                        checkouts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> cart : carts) {
+                cart.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(checkouts.get()).isEqualTo(CARTS * CHECKOUTS_PER_CART);
+    }
+}
@@ -0,0 +1,190 @@
+package com.cozystay.repository;
+
+import com.cozystay.model.Booking;
+import com.cozystay.model.BookingStatus;
+import com.cozystay.model.PricingUnit;
+import com.cozystay.model.Service;
+import com.cozystay.model.ServiceType;
+import com.cozystay.model.SlotInventory;
+import com.cozystay.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Seat counters: concurrent reservations against one slot never oversell it, and bookings for
+// shifted times count against the slot they fall in instead of starting a counter of their own.
+// The counter queries use ON CONFLICT, hence H2's PostgreSQL mode.
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:slot-inventory;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CatalogFixtures.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SlotInventoryTest {
+
+    private static final int CAPACITY = 10;
+    private static final int GUESTS = 12;
+    private static final int ATTEMPTS_PER_GUEST = 5;
+
+    @Autowired
+    private SlotInventoryRepository slotInventoryRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private User provider;
+    private Service service;
+    private LocalDateTime slotStart;
+    private LocalDateTime slotEnd;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        provider = fixtures.provider();
+        service = serviceRepository.save(fixtures.service(provider, fixtures.category(), fixtures.location())
+                .type(ServiceType.ACTIVITY)
+                .pricingUnit(PricingUnit.PER_PERSON)
+                .capacity(CAPACITY)
+                .build());
+
+        slotStart = LocalDateTime.now().plusDays(7).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        slotEnd = slotStart.plusHours(2);
+    }
+
+    @Test
+    void concurrentReservationsNeverExceedCapacity() throws Exception {
+        transactionTemplate.executeWithoutResult(status ->
+                slotInventoryRepository.createIfMissing(service.getId(), slotStart, slotEnd, CAPACITY));
+
+        ExecutorService executor = Executors.newFixedThreadPool(GUESTS);
+        AtomicInteger seatsSold = new AtomicInteger();
+
+        try {
+            List<Future<?>> guests = new ArrayList<>();
+            for (int g = 0; g < GUESTS; g++) {
+                int seats = 1 + g % 3;
+                guests.add(executor.submit(() -> {
+                    for (int i = 0; i < ATTEMPTS_PER_GUEST; i++) {
+                        // Same steps as BookingService.reserveSeats
+                        boolean reserved = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                            slotInventoryRepository.createIfMissing(service.getId(), slotStart, slotEnd, CAPACITY);
+                            return slotInventoryRepository.reserve(service.getId(), slotStart, slotEnd, seats) == 1;
+                        }));
+                        if (reserved) {
+                            seatsSold.addAndGet(seats);
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> guest : guests) {
+                guest.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        SlotInventory counter = onlyCounter();
+        assertThat(seatsSold.get()).isPositive().isLessThanOrEqualTo(CAPACITY);
+        assertThat(counter.getRemaining()).isEqualTo(CAPACITY - seatsSold.get());
+    }
+
+    @Test
+    void bookingsForShiftedTimesCountAgainstTheirSlot() {
+        // Made before counters were keyed on the slot: ends a minute early
+        bookingRepository.save(Booking.builder()
+                .user(provider)
+                .service(service)
+                .startDateTime(slotStart)
+                .endDateTime(slotEnd.minusMinutes(1))
+                .totalPrice(BigDecimal.valueOf(45))
+                .guestCount(3)
+                .status(BookingStatus.CONFIRMED)
+                .build());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            slotInventoryRepository.createIfMissing(service.getId(), slotStart, slotEnd, CAPACITY);
+            // A second call for the same slot is a no-op, not a fresh counter
+            slotInventoryRepository.createIfMissing(service.getId(), slotStart, slotEnd, CAPACITY);
+        });
+        assertThat(onlyCounter().getRemaining()).isEqualTo(CAPACITY - 3);
+
+        int tooMany = transactionTemplate.execute(status ->
+                slotInventoryRepository.reserve(service.getId(), slotStart, slotEnd, CAPACITY - 2));
+        assertThat(tooMany).isZero();
+
+        // Cancelling the shifted booking hands its seats back to the slot's counter
+        transactionTemplate.executeWithoutResult(status ->
+                slotInventoryRepository.release(service.getId(), slotStart, slotEnd.minusMinutes(1), 3));
+        assertThat(onlyCounter().getRemaining()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void expiredBookingsReturnTheirSeatsToTheirSlot() {
+        // One booking for the slot's own times and one for shifted times, expired in the same batch
+        Long exact = pendingBooking(slotStart, slotEnd, 2).getId();
+        Long shifted = pendingBooking(slotStart.plusMinutes(15), slotEnd, 3).getId();
+
+        transactionTemplate.executeWithoutResult(status ->
+                slotInventoryRepository.createIfMissing(service.getId(), slotStart, slotEnd, CAPACITY));
+        assertThat(onlyCounter().getRemaining()).isEqualTo(CAPACITY - 5);
+
+        int released = transactionTemplate.execute(status ->
+                slotInventoryRepository.releaseForBookings(List.of(exact, shifted)));
+
+        assertThat(released).isEqualTo(1);
+        assertThat(onlyCounter().getRemaining()).isEqualTo(CAPACITY);
+    }
+
+    private Booking pendingBooking(LocalDateTime start, LocalDateTime end, int guests) {
+        return bookingRepository.save(Booking.builder()
+                .user(provider)
+                .service(service)
+                .startDateTime(start)
+                .endDateTime(end)
+                .totalPrice(BigDecimal.valueOf(15L * guests))
+                .guestCount(guests)
+                .status(BookingStatus.PENDING)
+                .build());
+    }
+
+    private SlotInventory onlyCounter() {
+        List<SlotInventory> counters = slotInventoryRepository.findAll().stream()
+                .filter(counter -> counter.getServiceId().equals(service.getId()))
+                .toList();
+        assertThat(counters).hasSize(1);
+        return counters.get(0);
+    }
+}
@@ -0,0 +1,69 @@
+package com.cozystay.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevocationIndexTest {
+
+    private RevocationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RevocationIndex();
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "expectedFamilies", 1_000L);
+        ReflectionTestUtils.setField(index, "falsePositiveRate", 0.01);
+        index.init();
+    }
+
+    @Test
+    void revokedFamiliesAreRejected() {
+        index.revoke("family-1");
+
+        assertThat(index.isRevoked("family-1")).isTrue();
+        assertThat(index.isRevoked("family-2")).isFalse();
+        assertThat(index.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void rebuildReplacesContentsButKeepsConcurrentRevocations() {
+        index.revoke("stale");
+
+        index.rebuild(() -> {
+            // Revoked on this node while the database was being read
+            index.revoke("during-rebuild");
+            return List.of("from-db");
+        });
+
+        assertThat(index.isRevoked("from-db")).isTrue();
+        assertThat(index.isRevoked("during-rebuild")).isTrue();
+        assertThat(index.isRevoked("stale")).isFalse();
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegativesAndFewFalsePositives() {
+        BloomFilter bloom = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloom.put("member-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(bloom.mightContain("member-" + i)).isTrue();
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (bloom.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
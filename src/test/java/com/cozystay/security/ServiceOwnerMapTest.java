@@ -0,0 +1,55 @@
+package com.cozystay.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceOwnerMapTest {
+
+    @Test
+    void putGetAndRemove() {
+        ServiceOwnerMap map = new ServiceOwnerMap(16);
+
+        map.put(1L, 10L);
+        map.put(2L, 20L);
+        map.put(1L, 11L);
+
+        assertThat(map.get(1L)).isEqualTo(11L);
+        assertThat(map.get(2L)).isEqualTo(20L);
+        assertThat(map.get(3L)).isEqualTo(ServiceOwnerMap.MISSING);
+        assertThat(map.size()).isEqualTo(2);
+
+        map.remove(1L);
+        assertThat(map.get(1L)).isEqualTo(ServiceOwnerMap.MISSING);
+        assertThat(map.get(2L)).isEqualTo(20L);
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void matchesHashMapThroughResizesAndRemovals() {
+        ServiceOwnerMap map = new ServiceOwnerMap(16);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            long id = 1 + random.nextInt(5_000);
+            if (random.nextInt(4) == 0) {
+                map.remove(id);
+                expected.remove(id);
+            } else {
+                long owner = random.nextInt(1_000);
+                map.put(id, owner);
+                expected.put(id, owner);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long id = 1; id <= 5_000; id++) {
+            assertThat(map.get(id)).isEqualTo(expected.getOrDefault(id, ServiceOwnerMap.MISSING));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.cozystay.service;
+
+import com.cozystay.dto.availability.AvailabilityOverrideRequest;
+import com.cozystay.dto.availability.AvailabilityResponse;
+import com.cozystay.exception.BadRequestException;
+import com.cozystay.model.AvailabilityOverride;
+import com.cozystay.model.AvailabilityRule;
+import com.cozystay.model.Service;
+import com.cozystay.model.User;
+import com.cozystay.repository.AvailabilityOverrideRepository;
+import com.cozystay.repository.AvailabilityRuleRepository;
+import com.cozystay.security.AuthorizationPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+// Weekly rules are expanded per request window; overrides replace single occurrences
+@ExtendWith(MockitoExtension.class)
+class AvailabilityRuleServiceTest {
+
+    private static final LocalDate FRIDAY = LocalDate.of(2026, 11, 6);
+
+    @Mock
+    private AvailabilityRuleRepository availabilityRuleRepository;
+
+    @Mock
+    private AvailabilityOverrideRepository availabilityOverrideRepository;
+
+    @Mock
+    private AuthorizationPolicy authorizationPolicy;
+
+    @InjectMocks
+    private AvailabilityRuleService availabilityRuleService;
+
+    private AvailabilityRule weekendStay;
+
+    @BeforeEach
+    void setUp() {
+        User provider = User.builder().id(7L).username("provider").isActive(true).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(provider, null, List.of()));
+
+        // Friday check-in at 15:00, check-out the next day at 11:00
+        weekendStay = AvailabilityRule.builder()
+                .id(3L)
+                .service(Service.builder().id(1L).build())
+                .daysOfWeek(Set.of(DayOfWeek.FRIDAY))
+                .startTime(LocalTime.of(15, 0))
+                .endTime(LocalTime.of(11, 0))
+                .validFrom(FRIDAY.minusWeeks(4))
+                .isAvailable(true)
+                .overrides(new ArrayList<>())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void overnightOccurrenceOverlapsTheFollowingDay() {
+        LocalDate saturday = FRIDAY.plusDays(1);
+        when(availabilityRuleRepository.findRulesForServiceBetweenDates(eq(1L), any(), any()))
+                .thenReturn(List.of(weekendStay));
+
+        List<AvailabilityResponse> occurrences = availabilityRuleService.getAvailableOccurrences(
+                1L, saturday.atStartOfDay(), saturday.atTime(10, 0));
+
+        assertThat(occurrences).hasSize(1);
+        assertThat(occurrences.get(0).getStartDateTime()).isEqualTo(FRIDAY.atTime(15, 0));
+        assertThat(occurrences.get(0).getEndDateTime()).isEqualTo(saturday.atTime(11, 0));
+    }
+
+    @Test
+    void overrideCancelsOnlyItsOccurrence() {
+        LocalDate nextFriday = FRIDAY.plusWeeks(1);
+        AvailabilityOverride holiday = AvailabilityOverride.builder()
+                .rule(weekendStay)
+                .occurrenceDate(FRIDAY)
+                .isAvailable(false)
+                .build();
+        when(availabilityRuleRepository.findRulesForServiceBetweenDates(eq(1L), any(), any()))
+                .thenReturn(List.of(weekendStay));
+        when(availabilityOverrideRepository.findByRuleIdInAndOccurrenceDateBetween(anyList(), any(), any()))
+                .thenReturn(List.of(holiday));
+
+        List<AvailabilityResponse> occurrences = availabilityRuleService.getAvailableOccurrences(
+                1L, FRIDAY.atStartOfDay(), nextFriday.plusDays(1).atTime(12, 0));
+
+        assertThat(occurrences).extracting(AvailabilityResponse::getStartDateTime)
+                .containsExactly(nextFriday.atTime(15, 0));
+    }
+
+    @Test
+    void overLongRangeIsRejectedBeforeExpanding() {
+        assertThatThrownBy(() -> availabilityRuleService.getAvailableOccurrences(
+                1L, FRIDAY.atStartOfDay(), FRIDAY.plusDays(400).atStartOfDay()))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("366");
+
+        verifyNoInteractions(availabilityRuleRepository, availabilityOverrideRepository);
+    }
+
+    @Test
+    void overrideForADateTheRuleDoesNotStartOnIsRejected() {
+        when(availabilityRuleRepository.findById(3L)).thenReturn(Optional.of(weekendStay));
+
+        assertThatThrownBy(() -> availabilityRuleService.addOverride(3L,
+                new AvailabilityOverrideRequest(FRIDAY.plusDays(1), false, null, null, null)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("not an occurrence");
+
+        verify(availabilityOverrideRepository, never()).save(any());
+    }
+}
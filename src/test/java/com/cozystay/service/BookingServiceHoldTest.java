@@ -0,0 +1,120 @@
+package com.cozystay.service;
+
+import com.cozystay.dto.booking.BookingHoldRequest;
+import com.cozystay.exception.BadRequestException;
+import com.cozystay.hold.BookingHoldIndex;
+import com.cozystay.model.PricingUnit;
+import com.cozystay.model.Service;
+import com.cozystay.model.User;
+import com.cozystay.repository.BookingHoldRepository;
+import com.cozystay.repository.ServiceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Holds block other guests from dates, so their length, start and number per guest are bounded
+@ExtendWith(MockitoExtension.class)
+class BookingServiceHoldTest {
+
+    private static final int MAX_HOLDS = 2;
+
+    @Mock
+    private ServiceRepository serviceRepository;
+
+    @Mock
+    private BookingHoldRepository bookingHoldRepository;
+
+    @Mock
+    private BookingHoldIndex bookingHoldIndex;
+
+    @InjectMocks
+    private BookingService bookingService;
+
+    private LocalDateTime checkIn;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bookingService, "durableHolds", true);
+        ReflectionTestUtils.setField(bookingService, "maxHoldDurationDays", 30L);
+        ReflectionTestUtils.setField(bookingService, "maxHoldsPerUser", MAX_HOLDS);
+
+        User guest = User.builder().id(7L).username("guest").isActive(true).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(guest, null, List.of()));
+
+        Service service = Service.builder()
+                .id(1L)
+                .title("Garden house")
+                .price(BigDecimal.valueOf(40))
+                .pricingUnit(PricingUnit.PER_NIGHT)
+                .isActive(true)
+                .build();
+        when(serviceRepository.findById(1L)).thenReturn(Optional.of(service));
+
+        checkIn = LocalDateTime.now().plusDays(7).withHour(15).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void holdStartingInThePastIsRejected() {
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+
+        assertThatThrownBy(() -> bookingService.placeHold(new BookingHoldRequest(1L, yesterday, checkIn)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("past");
+
+        verifyNothingHeld();
+    }
+
+    @Test
+    void holdLongerThanTheCapIsRejected() {
+        assertThatThrownBy(() -> bookingService.placeHold(
+                new BookingHoldRequest(1L, checkIn, checkIn.plusDays(31))))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("30 days");
+
+        verifyNothingHeld();
+    }
+
+    @Test
+    void guestAtTheHoldCapIsRejected() {
+        when(bookingHoldRepository.countActiveForUser(eq(7L), any())).thenReturn((long) MAX_HOLDS);
+
+        assertThatThrownBy(() -> bookingService.placeHold(
+                new BookingHoldRequest(1L, checkIn, checkIn.plusDays(2))))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("more than " + MAX_HOLDS);
+
+        verifyNothingHeld();
+    }
+
+    private void verifyNothingHeld() {
+        verify(serviceRepository, never()).lockById(anyLong());
+        verify(bookingHoldIndex, never()).tryPlace(anyLong(), any());
+        verify(bookingHoldRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,159 @@
+package com.cozystay.service;
+
+import com.cozystay.dto.availability.AvailabilityResponse;
+import com.cozystay.dto.booking.BookingDetailResponse;
+import com.cozystay.dto.booking.BookingRequest;
+import com.cozystay.exception.BadRequestException;
+import com.cozystay.model.Availability;
+import com.cozystay.model.Booking;
+import com.cozystay.model.PricingUnit;
+import com.cozystay.model.Service;
+import com.cozystay.model.User;
+import com.cozystay.repository.AvailabilityRepository;
+import com.cozystay.repository.BookingRepository;
+import com.cozystay.repository.ServiceRepository;
+import com.cozystay.repository.SlotInventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Seat-sold services key their counters on the slot, so a booking must cover exactly one slot
+@ExtendWith(MockitoExtension.class)
+class BookingServiceSeatSlotTest {
+
+    private static final int CAPACITY = 10;
+
+    @Mock
+    private ServiceRepository serviceRepository;
+
+    @Mock
+    private AvailabilityRepository availabilityRepository;
+
+    @Mock
+    private AvailabilityRuleService availabilityRuleService;
+
+    @Mock
+    private SlotInventoryRepository slotInventoryRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ProviderAnalyticsService providerAnalyticsService;
+
+    @Mock
+    private ModelMapper modelMapper;
+
+    @InjectMocks
+    private BookingService bookingService;
+
+    private Service service;
+    private LocalDateTime slotStart;
+    private LocalDateTime slotEnd;
+
+    @BeforeEach
+    void setUp() {
+        User guest = User.builder().id(7L).username("guest").isActive(true).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(guest, null, List.of()));
+
+        service = Service.builder()
+                .id(1L)
+                .title("Lantern boat tour")
+                .price(BigDecimal.valueOf(15))
+                .pricingUnit(PricingUnit.PER_PERSON)
+                .capacity(CAPACITY)
+                .isActive(true)
+                .build();
+        when(serviceRepository.findById(1L)).thenReturn(Optional.of(service));
+
+        slotStart = LocalDateTime.now().plusDays(7).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        slotEnd = slotStart.plusHours(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void bookingTheWholeSlotReservesOnTheSlotCounter() {
+        when(availabilityRepository.findAvailableSlotsForServiceBetweenDates(1L, slotStart, slotEnd))
+                .thenReturn(List.of(oneOffSlot()));
+        when(slotInventoryRepository.reserve(1L, slotStart, slotEnd, 2)).thenReturn(1);
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(modelMapper.map(any(Booking.class), eq(BookingDetailResponse.class))).thenReturn(new BookingDetailResponse());
+
+        bookingService.createBooking(new BookingRequest(1L, slotStart, slotEnd, 2, null));
+
+        verify(slotInventoryRepository).createIfMissing(1L, slotStart, slotEnd, CAPACITY);
+        verify(slotInventoryRepository).reserve(1L, slotStart, slotEnd, 2);
+    }
+
+    @Test
+    void shiftedTimesInsideAOneOffSlotAreRejected() {
+        LocalDateTime shiftedEnd = slotEnd.minusMinutes(1);
+        when(availabilityRepository.findAvailableSlotsForServiceBetweenDates(1L, slotStart, shiftedEnd))
+                .thenReturn(List.of(oneOffSlot()));
+
+        assertThatThrownBy(() -> bookingService.createBooking(new BookingRequest(1L, slotStart, shiftedEnd, 2, null)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("whole slots");
+
+        verifyNoCounterTouched();
+    }
+
+    @Test
+    void shiftedTimesInsideARuleOccurrenceAreRejected() {
+        LocalDateTime shiftedStart = slotStart.plusMinutes(30);
+        when(availabilityRepository.findAvailableSlotsForServiceBetweenDates(1L, shiftedStart, slotEnd))
+                .thenReturn(List.of());
+        AvailabilityResponse occurrence = new AvailabilityResponse();
+        occurrence.setStartDateTime(slotStart);
+        occurrence.setEndDateTime(slotEnd);
+        when(availabilityRuleService.getAvailableOccurrences(1L, shiftedStart, slotEnd)).thenReturn(List.of(occurrence));
+
+        assertThatThrownBy(() -> bookingService.createBooking(new BookingRequest(1L, shiftedStart, slotEnd, 2, null)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("whole slots");
+
+        verifyNoCounterTouched();
+    }
+
+    private Availability oneOffSlot() {
+        return Availability.builder()
+                .id(3L)
+                .service(service)
+                .startDateTime(slotStart)
+                .endDateTime(slotEnd)
+                .isAvailable(true)
+                .build();
+    }
+
+    private void verifyNoCounterTouched() {
+        verify(slotInventoryRepository, never()).createIfMissing(anyLong(), any(), any(), anyInt());
+        verify(slotInventoryRepository, never()).reserve(anyLong(), any(), any(), anyInt());
+        verify(bookingRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,127 @@
+package com.cozystay.service;
+
+import com.cozystay.dto.payment.PaymentRequest;
+import com.cozystay.dto.payment.PaymentResponse;
+import com.cozystay.exception.ResourceAlreadyExistsException;
+import com.cozystay.model.Booking;
+import com.cozystay.model.BookingStatus;
+import com.cozystay.model.Payment;
+import com.cozystay.model.PaymentMethod;
+import com.cozystay.model.PaymentStatus;
+import com.cozystay.model.User;
+import com.cozystay.payment.GatewayResponse;
+import com.cozystay.payment.PaymentGateway;
+import com.cozystay.repository.BookingRepository;
+import com.cozystay.repository.PaymentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+// A declined charge must leave the booking payable with a fresh Idempotency-Key
+@ExtendWith(MockitoExtension.class)
+class PaymentRetryTest {
+
+    private static final BigDecimal TOTAL = BigDecimal.valueOf(120);
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private ProviderAnalyticsService providerAnalyticsService;
+
+    @Mock
+    private ModelMapper modelMapper;
+
+    @InjectMocks
+    private PaymentService paymentService;
+
+    private Payment stored;
+
+    @BeforeEach
+    void setUp() {
+        User guest = User.builder().id(7L).username("guest").isActive(true).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(guest, null, List.of()));
+
+        Booking booking = Booking.builder()
+                .id(11L)
+                .user(guest)
+                .totalPrice(TOTAL)
+                .status(BookingStatus.CONFIRMED)
+                .build();
+        when(bookingRepository.findById(11L)).thenReturn(Optional.of(booking));
+        when(paymentRepository.findByTransactionId(anyString())).thenReturn(Optional.empty());
+        // Stands in for the payments table: one row per booking
+        when(paymentRepository.lockByBookingId(11L)).thenAnswer(invocation -> Optional.ofNullable(stored));
+        when(paymentRepository.saveAndFlush(any(Payment.class))).thenAnswer(invocation -> {
+            stored = invocation.getArgument(0);
+            return stored;
+        });
+        when(modelMapper.map(any(Payment.class), eq(PaymentResponse.class))).thenReturn(new PaymentResponse());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void declinedPaymentCanBeRetriedWithANewKey() {
+        when(paymentGateway.charge("key-1", TOTAL, PaymentMethod.CREDIT_CARD))
+                .thenReturn(new GatewayResponse(false, null, "Card declined"));
+        when(paymentGateway.charge("key-2", TOTAL, PaymentMethod.DEBIT_CARD))
+                .thenReturn(new GatewayResponse(true, "ref-2", null));
+
+        paymentService.createPayment("key-1", new PaymentRequest(11L, PaymentMethod.CREDIT_CARD, null));
+        settle();
+        assertThat(stored.getStatus()).isEqualTo(PaymentStatus.FAILED);
+
+        paymentService.createPayment("key-2", new PaymentRequest(11L, PaymentMethod.DEBIT_CARD, null));
+        assertThat(stored.getStatus()).isEqualTo(PaymentStatus.PENDING);
+        assertThat(stored.getTransactionId()).isEqualTo("key-2");
+        assertThat(stored.getNotes()).isNull();
+
+        settle();
+        assertThat(stored.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+        assertThat(stored.getPaidAt()).isNotNull();
+    }
+
+    @Test
+    void pendingPaymentIsNotReopened() {
+        paymentService.createPayment("key-1", new PaymentRequest(11L, PaymentMethod.CREDIT_CARD, null));
+
+        assertThatThrownBy(() -> paymentService.createPayment("key-2",
+                new PaymentRequest(11L, PaymentMethod.CREDIT_CARD, null)))
+                .isInstanceOf(ResourceAlreadyExistsException.class);
+        assertThat(stored.getTransactionId()).isEqualTo("key-1");
+    }
+
+    private void settle() {
+        when(paymentRepository.lockPendingBatch(10)).thenReturn(List.of(stored));
+        paymentService.settlePendingBatch(10);
+    }
+}
@@ -0,0 +1,127 @@
+package com.cozystay.web;
+
+import com.cozystay.controller.ServiceController;
+import com.cozystay.dto.category.CategoryResponse;
+import com.cozystay.dto.service.ServiceDetailResponse;
+import com.cozystay.model.Category;
+import com.cozystay.model.Service;
+import com.cozystay.service.ServiceManagementService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The service layer is the only way to the database here, so a 304 must not reach it
+class ConditionalGetTest {
+
+    private ServiceManagementService serviceManagementService;
+    private ResourceVersionCache resourceVersionCache;
+    private ServiceDetailResponse detail;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        serviceManagementService = mock(ServiceManagementService.class);
+
+        detail = new ServiceDetailResponse();
+        detail.setId(7L);
+        detail.setTitle("Cabin");
+        detail.setUpdatedAt(LocalDateTime.of(2025, 3, 1, 12, 0));
+        when(serviceManagementService.getServiceById(7L)).thenReturn(detail);
+
+        resourceVersionCache = new ResourceVersionCache();
+        ReflectionTestUtils.setField(resourceVersionCache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(resourceVersionCache, "maxEntries", 100);
+
+        ConditionalGet conditionalGet = new ConditionalGet();
+        ReflectionTestUtils.setField(conditionalGet, "resourceVersionCache", resourceVersionCache);
+
+        ServiceController controller = new ServiceController();
+        ReflectionTestUtils.setField(controller, "serviceManagementService", serviceManagementService);
+        ReflectionTestUtils.setField(controller, "conditionalGet", conditionalGet);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void matchingEtagIsAnsweredWithoutLoadingTheService() throws Exception {
+        MvcResult first = mockMvc.perform(get("/services/7"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/services/7").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(serviceManagementService, times(1)).getServiceById(7L);
+        verifyNoMoreInteractions(serviceManagementService);
+    }
+
+    @Test
+    void ifModifiedSinceIsAnsweredWithoutLoadingTheService() throws Exception {
+        MvcResult first = mockMvc.perform(get("/services/7"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String lastModified = first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get("/services/7").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+
+        verify(serviceManagementService, times(1)).getServiceById(7L);
+    }
+
+    @Test
+    void committedChangeForcesReload() throws Exception {
+        MvcResult first = mockMvc.perform(get("/services/7"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        resourceVersionCache.evict(Service.class, 7L);
+
+        // Same data comes back, so Spring MVC still answers 304, but only after loading it
+        mockMvc.perform(get("/services/7").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        verify(serviceManagementService, times(2)).getServiceById(7L);
+    }
+
+    @Test
+    void embeddedChangeForcesReload() throws Exception {
+        MvcResult first = mockMvc.perform(get("/services/7"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // The category was renamed: the service row itself is untouched
+        CategoryResponse category = new CategoryResponse();
+        category.setUpdatedAt(LocalDateTime.of(2025, 3, 2, 9, 0));
+        detail.setCategory(category);
+        resourceVersionCache.evict(Category.class, 3L);
+
+        MvcResult second = mockMvc.perform(get("/services/7").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        verify(serviceManagementService, times(2)).getServiceById(7L);
+        assertThat(second.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+}